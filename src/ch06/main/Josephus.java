@@ -29,8 +29,7 @@ public class Josephus {
   public static <E> E Josephus(CircularQueueIntfG<E> queue, int k) {
     if (queue.isEmpty()) return null;
     while (queue.size() > 1) {
-      for (int i=0; i < k-1; i++)   // skip past k-1 elements
-        queue.rotate();
+      queue.rotate(k-1);            // skip past k-1 elements
       E e = queue.dequeue();        // remove the front element from the collection
       System.out.println("    " + e + " is out");
       }
@@ -39,7 +38,7 @@ public class Josephus {
 
   /** Builds a circular queue from an array of objects. */
   public static <E> CircularQueueIntfG<E> buildQueue(E a[]) {
-    CircularQueueIntfG<E> queue = new LinkedCircularQueueG<>();
+    CircularQueueIntfG<E> queue = new ArrayCircularQueueG<>(a.length);
     for (int i=0; i<a.length; i++)
       queue.enqueue(a[i]);
     return queue;
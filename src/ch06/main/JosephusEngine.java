@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.main;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Josephus computations that scale to very large n. Josephus.Josephus simulates
+ * the circle with (k-1) rotations per elimination; here the people still in
+ * the circle are instead counted by a Fenwick (binary indexed) tree over an int
+ * array, so the next person out is found by a descent through the tree in
+ * O(log n) time, and the full elimination order costs O(n log n) whatever k
+ * is. Eliminations are passed to a callback rather than printed. When only the
+ * survivor is wanted it is computed directly, without simulating the circle.
+ * <p>
+ * People are numbered 0 to n-1 in their original order, counting starts at
+ * person 0, and every k-th person is eliminated.
+ */
+public class JosephusEngine {
+
+	private static final int SMALL_K = 64; // below this the O(k log n) recurrence is used
+
+	/**
+	 * Streams the people in the order they are eliminated and returns the
+	 * survivor. The callback receives the n-1 eliminated positions.
+	 */
+	public static int eliminationOrder(int n, int k, IntConsumer aOut) {
+		check(n, k);
+		int[] tree = new int[n + 1]; // Fenwick tree of 1s: everyone is present
+		for (int i = 1; i <= n; i++)
+			tree[i] = i & -i; // a node covers lowbit(i) people
+		int highBit = Integer.highestOneBit(n);
+		int index = 0; // rank among those remaining where counting resumes
+		for (int remaining = n; remaining > 1; remaining--) {
+			index = (int) ((index + (long) k - 1) % remaining);
+			int position = findByRank(tree, highBit, index + 1);
+			for (int i = position + 1; i <= n; i += i & -i) // remove that person
+				tree[i]--;
+			aOut.accept(position);
+		}
+		return findByRank(tree, highBit, 1);
+	}
+
+	/** Returns the full elimination order; the last entry is the survivor. */
+	public static int[] eliminationOrder(int n, int k) {
+		int[] order = new int[n];
+		int[] count = { 0 };
+		int survivor = eliminationOrder(n, k, position -> order[count[0]++] = position);
+		order[n - 1] = survivor;
+		return order;
+	}
+
+	/** Streams the elements of aCircle in elimination order and returns the winner. */
+	public static <E> E eliminationOrder(E[] aCircle, int k, Consumer<? super E> aOut) {
+		if (aCircle.length == 0)
+			return null;
+		return aCircle[eliminationOrder(aCircle.length, k, position -> aOut.accept(aCircle[position]))];
+	}
+
+	/**
+	 * Returns the 0-based position of the rank-th person still present, by
+	 * descending the Fenwick tree one bit at a time.
+	 */
+	private static int findByRank(int[] aTree, int aHighBit, int aRank) {
+		int position = 0;
+		for (int step = aHighBit; step > 0; step >>= 1) {
+			int next = position + step;
+			if (next < aTree.length && aTree[next] < aRank) {
+				position = next; // the wanted person lies beyond this node
+				aRank -= aTree[next];
+			}
+		}
+		return position; // the 1-based index of the person is position + 1
+	}
+
+	/**
+	 * Returns the survivor without listing the eliminations. For small k this
+	 * uses a recurrence that removes n/k people per step, in O(k log n) time;
+	 * otherwise the O(n) recurrence J(m) = (J(m-1) + k) mod m.
+	 */
+	public static int survivor(int n, int k) {
+		check(n, k);
+		if (k == 1)
+			return n - 1;
+		if (k < SMALL_K)
+			return survivorSmallK(n, k);
+		int result = 0; // J(1)
+		for (int m = 2; m <= n; m++)
+			result = (int) ((result + (long) k) % m);
+		return result;
+	}
+
+	/** The O(k log n) recurrence; assumes k >= 2. */
+	private static int survivorSmallK(int n, int k) {
+		if (n == 1)
+			return 0;
+		if (k > n) // fewer than k people left: one elimination at a time
+			return (survivorSmallK(n - 1, k) + k) % n;
+		int eliminated = n / k; // one full pass removes every k-th person
+		int result = survivorSmallK(n - eliminated, k) - n % k;
+		if (result < 0)
+			result += n; // lands among the people before the end of the pass
+		else
+			result += result / (k - 1); // skip the people removed in the pass
+		return result;
+	}
+
+	private static void check(int n, int k) {
+		if (n < 1)
+			throw new IllegalArgumentException("Circle must not be empty: " + n);
+		if (k < 1)
+			throw new IllegalArgumentException("Step must be positive: " + k);
+	}
+
+	/** Tester method */
+	public static void main(String[] args) {
+		String[] a1 = { "Alice", "Bob", "Cindy", "Doug", "Ed", "Fred" };
+		String winner = eliminationOrder(a1, 3, e -> System.out.println("    " + e + " is out"));
+		System.out.println("First winner is " + winner);
+
+		int n = 10_000_000;
+		long start = System.nanoTime();
+		long[] checksum = { 0 };
+		int survivor = eliminationOrder(n, 1_000_003, position -> checksum[0] += position);
+		System.out.println("Survivor of " + n + " is " + survivor + " (recurrence: " + survivor(n, 1_000_003)
+				+ ") in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+		System.out.println("Survivor of " + n + " with k = 3 is " + survivor(n, 3));
+	}
+}
@@ -24,8 +24,7 @@ package ch06.main;
 
 import java.util.Scanner;
 
-import ch06.mine.LinkedStackG;
-import ch06.mine.StackIntfG;
+import ch06.mine.CharArrayStack;
 
 /** Simplified test of matching delimiters in a string. */
 public class MatchDelimiters {
@@ -34,7 +33,7 @@ public class MatchDelimiters {
 	public static boolean isMatched(String expression) {
 		final String opening = "({["; // opening delimiters
 		final String closing = ")}]"; // respective closing delimiters
-		StackIntfG<Character> buffer = new LinkedStackG<>();
+		CharArrayStack buffer = new CharArrayStack(); // unboxed chars
 		for (char c : expression.toCharArray()) {
 			if (opening.indexOf(c) != -1) // this is a left delimiter
 				buffer.push(c);
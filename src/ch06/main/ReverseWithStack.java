@@ -25,6 +25,7 @@ package ch06.main;
 import java.util.Arrays;
 
 import ch06.mine.ArrayStackG;
+import ch06.mine.IntArrayStack;
 import ch06.mine.StackIntfG;
 
 public class ReverseWithStack {
@@ -38,16 +39,29 @@ public class ReverseWithStack {
       a[i] = buffer.pop();
   }
 
+  /** Reverses an array of ints without boxing its elements. */
+  public static void reverse(int[] a) {
+    IntArrayStack buffer = new IntArrayStack(a.length);
+    for (int i=0; i < a.length; i++)
+      buffer.push(a[i]);
+    for (int i=0; i < a.length; i++)
+      a[i] = buffer.pop();
+  }
+
   /** Tester routine for reversing arrays */
   public static void main(String args[]) {
     Integer[] a = {4, 8, 15, 16, 23, 42};  // autoboxing allows this
+    int[] p = {1, 2, 3, 5, 8, 13};
     String[] s = {"Jack", "Kate", "Hurley", "Jin", "Michael"};
     System.out.println("a = " + Arrays.toString(a));
+    System.out.println("p = " + Arrays.toString(p));
     System.out.println("s = " + Arrays.toString(s));
     System.out.println("Reversing...");
     reverse(a);
+    reverse(p);
     reverse(s);
     System.out.println("a = " + Arrays.toString(a));
+    System.out.println("p = " + Arrays.toString(p));
     System.out.println("s = " + Arrays.toString(s));
   }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adapts a non-blocking queue into a blocking one. Every operation holds a
+ * ReentrantLock while it touches the underlying queue, and threads that have
+ * to wait park on a Condition (notFull or notEmpty) rather than spinning. No
+ * synchronized block is used, so a waiting virtual thread does not pin its
+ * carrier thread. The underlying queue must not be used directly once it has
+ * been wrapped. Null elements are not permitted.
+ *
+ * @see ArrayBlockingQueueG
+ * @see LinkedBlockingQueueG
+ */
+public abstract class AbstractBlockingQueueG<E> implements BlockingQueueIntfG<E> {
+
+	private final QueueIntfG<E> theQueue;
+
+	private final int theCapacity;
+
+	private final ReentrantLock theLock = new ReentrantLock();
+
+	private final Condition theNotEmpty = theLock.newCondition();
+
+	private final Condition theNotFull = theLock.newCondition();
+
+	/**
+	 * @param aQueue    the queue to be wrapped, which must be empty
+	 * @param aCapacity the number of elements after which producers must wait;
+	 *                  must not exceed what aQueue itself can hold
+	 */
+	protected AbstractBlockingQueueG(QueueIntfG<E> aQueue, int aCapacity) {
+		if (aCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aCapacity);
+		theQueue = aQueue;
+		theCapacity = aCapacity;
+	}
+
+	public int capacity() {
+		return theCapacity;
+	}
+
+	@Override
+	public int size() {
+		theLock.lock();
+		try {
+			return theQueue.size();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (size() == 0);
+	}
+
+	@Override
+	public void enqueue(E aElement) throws IllegalStateException {
+		checkNotNull(aElement);
+		theLock.lock();
+		try {
+			if (theQueue.size() == theCapacity)
+				throw new IllegalStateException("Queue is full");
+			insert(aElement);
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public void put(E aElement) throws InterruptedException {
+		checkNotNull(aElement);
+		theLock.lockInterruptibly();
+		try {
+			while (theQueue.size() == theCapacity)
+				theNotFull.await();
+			insert(aElement);
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(E aElement, long aTimeout, TimeUnit aUnit) throws InterruptedException {
+		checkNotNull(aElement);
+		long nanos = aUnit.toNanos(aTimeout);
+		theLock.lockInterruptibly();
+		try {
+			while (theQueue.size() == theCapacity) {
+				if (nanos <= 0)
+					return false;
+				nanos = theNotFull.awaitNanos(nanos);
+			}
+			insert(aElement);
+			return true;
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public E first() {
+		theLock.lock();
+		try {
+			return theQueue.first();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public E dequeue() {
+		theLock.lock();
+		try {
+			return theQueue.isEmpty() ? null : remove();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		theLock.lockInterruptibly();
+		try {
+			while (theQueue.isEmpty())
+				theNotEmpty.await();
+			return remove();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public E poll(long aTimeout, TimeUnit aUnit) throws InterruptedException {
+		long nanos = aUnit.toNanos(aTimeout);
+		theLock.lockInterruptibly();
+		try {
+			while (theQueue.isEmpty()) {
+				if (nanos <= 0)
+					return null;
+				nanos = theNotEmpty.awaitNanos(nanos);
+			}
+			return remove();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	// the following two are called with the lock held
+	private void insert(E aElement) {
+		theQueue.enqueue(aElement);
+		theNotEmpty.signal();
+	}
+
+	private E remove() {
+		E result = theQueue.dequeue();
+		theNotFull.signal();
+		return result;
+	}
+
+	private static void checkNotNull(Object aElement) {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+	}
+
+	public String toString() {
+		theLock.lock();
+		try {
+			return theQueue.toString();
+		} finally {
+			theLock.unlock();
+		}
+	}
+}
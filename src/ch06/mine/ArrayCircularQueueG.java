@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.Arrays;
+
+/**
+ * Realization of a circular queue using a fixed-length circular array. A
+ * rotation only moves the front index when the array is full, so rotate(k)
+ * then takes constant time for any k; otherwise the k elements (or the size
+ * minus k elements, rotated the other way, whichever is fewer) are moved across
+ * the free part of the array with array copies, and no element is ever
+ * reached by following references. Other operations are performed in constant
+ * time. An exception is thrown if an enqueue operation is attempted when the
+ * size of the queue is equal to the length of the array.
+ *
+ * @see ArrayQueueG
+ * @see LinkedCircularQueueG
+ */
+public class ArrayCircularQueueG<E> implements CircularQueueIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private E[] theData;
+
+	private int theFrontIndex = 0;
+
+	private int theSize = 0;
+
+	// constructors
+	public ArrayCircularQueueG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	public ArrayCircularQueueG(int aCapacity) {
+		theData = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+	}
+
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	@Override
+	public void enqueue(E aElement) throws IllegalStateException {
+		if (theSize == theData.length) {
+			throw new IllegalStateException("Queue is full");
+		} else {
+			int available = (theFrontIndex + theSize) % theData.length; // use modular arithmetic
+			theData[available] = aElement;
+			theSize++;
+		}
+	}
+
+	@Override
+	public E first() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theData[theFrontIndex];
+		}
+	}
+
+	@Override
+	public E dequeue() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			E result = theData[theFrontIndex];
+			theData[theFrontIndex] = null; // dereference to help garbage collection
+			theFrontIndex = (theFrontIndex + 1) % theData.length;
+			theSize--;
+			return result;
+		}
+	}
+
+	@Override
+	public void rotate() {
+		rotate(1);
+	}
+
+	@Override
+	public void rotate(int k) {
+		if (theSize <= 1)
+			return;
+		k = Math.floorMod(k, theSize);
+		if (k == 0)
+			return;
+		if (theSize == theData.length) { // no free slots: the ring itself turns
+			theFrontIndex = (theFrontIndex + k) % theData.length;
+		} else if (k <= theSize - k) {
+			moveFrontToBack(k);
+		} else {
+			moveBackToFront(theSize - k);
+		}
+	}
+
+	/** Moves aCount elements from the front to the back, a free stretch at a time. */
+	private void moveFrontToBack(int aCount) {
+		int length = theData.length;
+		int free = length - theSize;
+		while (aCount > 0) {
+			int source = theFrontIndex;
+			int target = (theFrontIndex + theSize) % length;
+			int chunk = Math.min(Math.min(aCount, free), Math.min(length - source, length - target));
+			System.arraycopy(theData, source, theData, target, chunk); // disjoint: chunk <= free
+			Arrays.fill(theData, source, source + chunk, null);
+			theFrontIndex = (theFrontIndex + chunk) % length;
+			aCount -= chunk;
+		}
+	}
+
+	/** Moves aCount elements from the back to the front, a free stretch at a time. */
+	private void moveBackToFront(int aCount) {
+		int length = theData.length;
+		int free = length - theSize;
+		while (aCount > 0) {
+			int sourceEnd = (theFrontIndex + theSize) % length; // exclusive
+			if (sourceEnd == 0)
+				sourceEnd = length;
+			int targetEnd = (theFrontIndex == 0) ? length : theFrontIndex; // exclusive
+			int chunk = Math.min(Math.min(aCount, free), Math.min(sourceEnd, targetEnd));
+			System.arraycopy(theData, sourceEnd - chunk, theData, targetEnd - chunk, chunk);
+			Arrays.fill(theData, sourceEnd - chunk, sourceEnd, null);
+			theFrontIndex = (theFrontIndex - chunk + length) % length;
+			aCount -= chunk;
+		}
+	}
+
+	/**
+	 * Returns a string representation of the queue as a list of elements. This
+	 * method runs in O(n) time, where n is the size of the queue.
+	 * 
+	 * @return textual representation of the queue.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		int frontIndex = theFrontIndex;
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theData[frontIndex]);
+			frontIndex = (frontIndex + 1) % theData.length;
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
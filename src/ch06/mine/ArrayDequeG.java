@@ -0,0 +1,178 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * Implementation of the deque ADT using a circular array whose length is always
+ * a power of two, so that a position is wrapped with a bit mask rather than
+ * with modular arithmetic. When an insertion finds the array full, the array is
+ * doubled and the elements are copied to its front with at most two array
+ * copies. Insertions at either end run in amortized constant time and all other
+ * operations in constant time. The elements occupy one contiguous array, with
+ * no per-element node objects.
+ *
+ * @see DequeIntfG
+ * @see ch03.mine.DoublyLinkedListG
+ */
+public class ArrayDequeG<E> implements DequeIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 16;
+
+	private E[] theData;
+
+	private int theMask;
+
+	private int theFrontIndex = 0;
+
+	private int theSize = 0;
+
+	// constructors
+	public ArrayDequeG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	public ArrayDequeG(int aCapacity) { // rounded up to a power of two
+		if (aCapacity < 1 || aCapacity > (1 << 30))
+			throw new IllegalArgumentException("Illegal capacity: " + aCapacity);
+		int length = 1 << (32 - Integer.numberOfLeadingZeros(aCapacity - 1));
+		theData = (E[]) new Object[length]; // safe cast; compiler may give warning
+		theMask = length - 1;
+	}
+
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	@Override
+	public E first() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theData[theFrontIndex];
+		}
+	}
+
+	@Override
+	public E last() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theData[(theFrontIndex + theSize - 1) & theMask];
+		}
+	}
+
+	@Override
+	public void addFirst(E aElement) {
+		if (theSize == theData.length) {
+			grow();
+		}
+		theFrontIndex = (theFrontIndex - 1) & theMask; // step back with wrap
+		theData[theFrontIndex] = aElement;
+		theSize++;
+	}
+
+	@Override
+	public void addLast(E aElement) {
+		if (theSize == theData.length) {
+			grow();
+		}
+		theData[(theFrontIndex + theSize) & theMask] = aElement;
+		theSize++;
+	}
+
+	@Override
+	public E removeFirst() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			E result = theData[theFrontIndex];
+			theData[theFrontIndex] = null; // dereference to help garbage collection
+			theFrontIndex = (theFrontIndex + 1) & theMask;
+			theSize--;
+			return result;
+		}
+	}
+
+	@Override
+	public E removeLast() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			int lastIndex = (theFrontIndex + theSize - 1) & theMask;
+			E result = theData[lastIndex];
+			theData[lastIndex] = null; // dereference to help garbage collection
+			theSize--;
+			return result;
+		}
+	}
+
+	/**
+	 * Returns, but does not remove, the element at the given distance from the
+	 * front of the deque.
+	 * 
+	 * @throws IndexOutOfBoundsException if aIndex is not in [0, size())
+	 */
+	public E get(int aIndex) throws IndexOutOfBoundsException {
+		if (aIndex < 0 || aIndex >= theSize)
+			throw new IndexOutOfBoundsException("Invalid index: " + aIndex);
+		return theData[(theFrontIndex + aIndex) & theMask];
+	}
+
+	/** Doubles the array, unwrapping the elements so the front lands at index 0. */
+	@SuppressWarnings({ "unchecked" })
+	private void grow() {
+		if (theData.length == (1 << 30))
+			throw new IllegalStateException("Deque is full");
+		E[] tmpData = (E[]) new Object[2 * theData.length]; // safe cast; compiler may give warning
+		int firstPart = theData.length - theFrontIndex; // the array is full, so the rest wraps
+		System.arraycopy(theData, theFrontIndex, tmpData, 0, firstPart);
+		System.arraycopy(theData, 0, tmpData, firstPart, theFrontIndex);
+		theData = tmpData;
+		theMask = tmpData.length - 1;
+		theFrontIndex = 0;
+	}
+
+	/**
+	 * Returns a string representation of the deque as a list of elements, front
+	 * first. This method runs in O(n) time, where n is the size of the deque.
+	 * 
+	 * @return textual representation of the deque.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theData[(theFrontIndex + j) & theMask]);
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Implementation of a priority queue as an array-based binary heap. Keys and
+ * values sit in two parallel arrays, the entry at index j having its children
+ * at 2j+1 and 2j+2, so no node or entry object is allocated per element. The
+ * arrays are doubled when they fill up. insert and removeMin run in O(log n)
+ * time and min in constant time; a heap built from existing arrays is
+ * assembled bottom-up in O(n) time.
+ *
+ * @see PriorityQueueIntfG
+ * @see IndexedHeapPriorityQueueG
+ */
+public class ArrayHeapPriorityQueueG<K, V> implements PriorityQueueIntfG<K, V> {
+
+	public static final int DEFAULT_CAPACITY = 16;
+
+	protected K[] theKeys;
+
+	protected V[] theValues;
+
+	protected int theSize = 0;
+
+	private final Comparator<? super K> theComparator;
+
+	/** Creates an empty priority queue ordering keys by their natural ordering. */
+	public ArrayHeapPriorityQueueG() {
+		this(DEFAULT_CAPACITY, null);
+	}
+
+	/**
+	 * Creates an empty priority queue.
+	 * 
+	 * @param aCapacity   initial capacity, only a hint
+	 * @param aComparator orders the keys, or null for their natural ordering
+	 */
+	@SuppressWarnings({ "unchecked" })
+	public ArrayHeapPriorityQueueG(int aCapacity, Comparator<? super K> aComparator) {
+		if (aCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aCapacity);
+		theKeys = (K[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		theValues = (V[]) new Object[aCapacity];
+		theComparator = aComparator;
+	}
+
+	/**
+	 * Creates a priority queue holding the given entries, built bottom-up in O(n)
+	 * time. The arrays are copied, not retained.
+	 * 
+	 * @param aKeys       keys of the entries
+	 * @param aValues     values of the entries, parallel to aKeys
+	 * @param aComparator orders the keys, or null for their natural ordering
+	 */
+	public ArrayHeapPriorityQueueG(K[] aKeys, V[] aValues, Comparator<? super K> aComparator) {
+		this(Math.max(aKeys.length, 1), aComparator);
+		if (aKeys.length != aValues.length)
+			throw new IllegalArgumentException("Keys and values differ in length");
+		System.arraycopy(aKeys, 0, theKeys, 0, aKeys.length);
+		System.arraycopy(aValues, 0, theValues, 0, aValues.length);
+		theSize = aKeys.length;
+		heapify();
+	}
+
+	/** Restores the heap property by down-heaping every internal node, last first. */
+	protected void heapify() {
+		for (int j = parent(theSize - 1); j >= 0; j--)
+			downheap(j);
+	}
+
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	@Override
+	public void insert(K aKey, V aValue) throws IllegalArgumentException {
+		compare(aKey, aKey); // rejects keys that cannot be compared
+		if (theSize == theKeys.length)
+			grow(2 * theKeys.length);
+		theKeys[theSize] = aKey;
+		theValues[theSize] = aValue;
+		theSize++;
+		upheap(theSize - 1);
+	}
+
+	@Override
+	public K minKey() {
+		return isEmpty() ? null : theKeys[0];
+	}
+
+	@Override
+	public V min() {
+		return isEmpty() ? null : theValues[0];
+	}
+
+	@Override
+	public V removeMin() {
+		return isEmpty() ? null : removeAt(0);
+	}
+
+	/** Removes the entry at index aIndex and returns its value. */
+	protected V removeAt(int aIndex) {
+		V result = theValues[aIndex];
+		int last = theSize - 1;
+		swap(aIndex, last); // move the last entry into the hole
+		theKeys[last] = null; // dereference to help garbage collection
+		theValues[last] = null;
+		theSize--;
+		if (aIndex < theSize) {
+			upheap(aIndex);
+			downheap(aIndex);
+		}
+		return result;
+	}
+
+	/** Resizes the arrays to the given capacity. */
+	protected void grow(int aCapacity) {
+		theKeys = Arrays.copyOf(theKeys, aCapacity);
+		theValues = Arrays.copyOf(theValues, aCapacity);
+	}
+
+	/** Exchanges the entries at indices i and j. */
+	protected void swap(int i, int j) {
+		K tmpKey = theKeys[i];
+		theKeys[i] = theKeys[j];
+		theKeys[j] = tmpKey;
+		V tmpValue = theValues[i];
+		theValues[i] = theValues[j];
+		theValues[j] = tmpValue;
+	}
+
+	/** Moves the entry at index j higher, if necessary, to restore the heap property. */
+	protected void upheap(int j) {
+		while (j > 0) { // continue until reaching root (or break statement)
+			int p = parent(j);
+			if (compare(theKeys[j], theKeys[p]) >= 0)
+				break; // heap property verified
+			swap(j, p);
+			j = p; // continue from the parent's location
+		}
+	}
+
+	/** Moves the entry at index j lower, if necessary, to restore the heap property. */
+	protected void downheap(int j) {
+		while (2 * j + 1 < theSize) { // continue to bottom (or break statement)
+			int smallChild = 2 * j + 1; // although right may be smaller
+			int right = smallChild + 1;
+			if (right < theSize && compare(theKeys[right], theKeys[smallChild]) < 0)
+				smallChild = right; // right child is smaller
+			if (compare(theKeys[smallChild], theKeys[j]) >= 0)
+				break; // heap property has been restored
+			swap(j, smallChild);
+			j = smallChild; // continue at position of the child
+		}
+	}
+
+	private static int parent(int j) {
+		return (j - 1) / 2; // truncating division
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	protected int compare(K a, K b) throws IllegalArgumentException {
+		try {
+			if (theComparator != null)
+				return theComparator.compare(a, b);
+			return ((Comparable<? super K>) a).compareTo(b);
+		} catch (ClassCastException | NullPointerException e) {
+			throw new IllegalArgumentException("Incompatible key: " + a);
+		}
+	}
+
+	/** Returns the entries in heap (array) order, as key=value pairs. */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theKeys[j]).append('=').append(theValues[j]);
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
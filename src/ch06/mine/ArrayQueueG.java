@@ -22,9 +22,14 @@
  */
 package ch06.mine;
 
+import java.util.Arrays;
+import java.util.function.Consumer;
+
 /**
  * Implementation of the queue ADT using a fixed-length array. All operations
- * are performed in constant time. An exception is thrown if an enqueue
+ * are performed in constant time, except the bulk operations enqueueAll and
+ * drainTo, which take time proportional to the number of elements moved. An
+ * exception is thrown if an enqueue
  * operation is attempted when the size of the queue is equal to the length of
  * the array.
  *
@@ -96,6 +101,73 @@ public class ArrayQueueG<E> implements QueueIntfG<E> {
 		}
 	}
 
+	/**
+	 * Inserts len elements of aSource, starting at aOffset, at the rear of the
+	 * queue, in order. The elements are copied with at most two array copies, one
+	 * on each side of the wrap point. Either all elements are inserted or, if
+	 * there is not enough room, none are.
+	 * 
+	 * @throws IllegalStateException if fewer than len slots are free
+	 */
+	public void enqueueAll(E[] aSource, int aOffset, int aLength) throws IllegalStateException {
+		if (aOffset < 0 || aLength < 0 || aOffset + aLength > aSource.length)
+			throw new IndexOutOfBoundsException("Invalid range: " + aOffset + ", " + aLength);
+		if (aLength > theData.length - theSize)
+			throw new IllegalStateException("Queue is full");
+		int available = (theFrontIndex + theSize) % theData.length;
+		int firstPart = Math.min(aLength, theData.length - available); // up to the end of the array
+		System.arraycopy(aSource, aOffset, theData, available, firstPart);
+		System.arraycopy(aSource, aOffset + firstPart, theData, 0, aLength - firstPart); // wrapped part
+		theSize += aLength;
+	}
+
+	/**
+	 * Removes up to aMax elements from the front of the queue and stores them, in
+	 * order, at the start of aDestination. The elements are copied with at most
+	 * two array copies.
+	 * 
+	 * @return the number of elements removed
+	 */
+	public int drainTo(E[] aDestination, int aMax) {
+		int count = Math.min(Math.min(aMax, aDestination.length), theSize);
+		if (count <= 0)
+			return 0;
+		int firstPart = Math.min(count, theData.length - theFrontIndex); // up to the end of the array
+		System.arraycopy(theData, theFrontIndex, aDestination, 0, firstPart);
+		System.arraycopy(theData, 0, aDestination, firstPart, count - firstPart); // wrapped part
+		release(count, firstPart);
+		return count;
+	}
+
+	/**
+	 * Removes up to aMax elements from the front of the queue and passes them, in
+	 * order, to aConsumer. Each element is removed before it is passed on, so if
+	 * aConsumer throws, the elements it has received are gone and the rest are
+	 * still queued.
+	 * 
+	 * @return the number of elements removed
+	 */
+	public int drainTo(Consumer<? super E> aConsumer, int aMax) {
+		int count = Math.min(aMax, theSize);
+		for (int j = 0; j < count; j++) {
+			E element = theData[theFrontIndex];
+			theData[theFrontIndex] = null; // dereference to help garbage collection
+			if (++theFrontIndex == theData.length)
+				theFrontIndex = 0;
+			theSize--;
+			aConsumer.accept(element);
+		}
+		return Math.max(count, 0);
+	}
+
+	/** Clears and skips the count slots at the front, firstPart of them before the wrap. */
+	private void release(int aCount, int aFirstPart) {
+		Arrays.fill(theData, theFrontIndex, theFrontIndex + aFirstPart, null); // help garbage collection
+		Arrays.fill(theData, 0, aCount - aFirstPart, null);
+		theFrontIndex = (theFrontIndex + aCount) % theData.length;
+		theSize -= aCount;
+	}
+
 	/**
 	 * Returns a string representation of the queue as a list of elements. This
 	 * method runs in O(n) time, where n is the size of the queue.
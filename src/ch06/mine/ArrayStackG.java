@@ -22,6 +22,8 @@
  */
 package ch06.mine;
 
+import java.util.Arrays;
+
 /**
  * Implementation of the stack ADT using a fixed-length array. All operations
  * are performed in constant time. An exception is thrown if a push operation is
@@ -36,6 +38,11 @@ public class ArrayStackG<E> implements StackIntfG<E> {
 	public static final int DEFAULT_CAPACITY = 1000;
 	private E[] theData;
 	private int theTopIndex = -1;
+	private int[] theMarkIds; // outstanding marks, innermost last; allocated by the first mark
+	private int[] theMarkDepths; // depth of the stack when each mark was taken
+	private int theMarkCount = 0;
+	private int theNextMarkId = 0;
+	private int theMarkFloor = 0; // depth of the innermost mark; popping below it breaks marks
 
 	public ArrayStackG() {
 		this(DEFAULT_CAPACITY);
@@ -83,10 +90,111 @@ public class ArrayStackG<E> implements StackIntfG<E> {
 			E result = theData[theTopIndex];
 			theData[theTopIndex] = null; // dereference to help garbage collection
 			theTopIndex = theTopIndex - 1;
+			if (theTopIndex < theMarkFloor - 1)
+				dropBrokenMarks();
 			return result;
 		}
 	}
 
+	/**
+	 * Pushes len elements of aSource, starting at aOffset, in order, so that the
+	 * last of them ends up on top. Either all elements are pushed or, if there is
+	 * not enough room, none are.
+	 * 
+	 * @throws IllegalStateException if fewer than len slots are free
+	 */
+	public void pushAll(E[] aSource, int aOffset, int aLength) throws IllegalStateException {
+		if (aOffset < 0 || aLength < 0 || aOffset + aLength > aSource.length)
+			throw new IndexOutOfBoundsException("Invalid range: " + aOffset + ", " + aLength);
+		if (aLength > theData.length - size())
+			throw new IllegalStateException("Stack is full");
+		System.arraycopy(aSource, aOffset, theData, theTopIndex + 1, aLength);
+		theTopIndex = theTopIndex + aLength;
+	}
+
+	/**
+	 * Pops up to aMax elements and stores them at the start of aDestination in
+	 * stack order: the former top ends up last, so pushAll(aDestination, 0, n)
+	 * restores the stack.
+	 * 
+	 * @return the number of elements popped
+	 */
+	public int popAll(E[] aDestination, int aMax) {
+		int count = Math.min(Math.min(aMax, aDestination.length), size());
+		if (count <= 0)
+			return 0;
+		int bottom = theTopIndex + 1 - count;
+		System.arraycopy(theData, bottom, aDestination, 0, count);
+		Arrays.fill(theData, bottom, theTopIndex + 1, null); // help garbage collection
+		theTopIndex = bottom - 1;
+		if (theTopIndex < theMarkFloor - 1)
+			dropBrokenMarks();
+		return count;
+	}
+
+	/**
+	 * Takes a mark at the current depth of the stack. Elements pushed after it
+	 * can later be discarded together with rollbackTo(mark), or kept with
+	 * commit(mark). Marks nest: only the innermost outstanding mark, the one
+	 * taken last, may be rolled back or committed, and each only once. Popping
+	 * below the depth of a mark breaks it, and it can no longer be used.
+	 * 
+	 * @return the mark, a token that is not the depth itself
+	 */
+	public int mark() {
+		if (theMarkIds == null) {
+			theMarkIds = new int[4];
+			theMarkDepths = new int[4];
+		} else if (theMarkCount == theMarkIds.length) {
+			theMarkIds = Arrays.copyOf(theMarkIds, 2 * theMarkCount);
+			theMarkDepths = Arrays.copyOf(theMarkDepths, 2 * theMarkCount);
+		}
+		theMarkIds[theMarkCount] = theNextMarkId;
+		theMarkDepths[theMarkCount++] = size();
+		theMarkFloor = size();
+		return theNextMarkId++;
+	}
+
+	/**
+	 * Discards every element pushed since the mark was taken. This is an index
+	 * reset, not a sequence of pops.
+	 * 
+	 * @throws IllegalArgumentException if the mark is not the innermost
+	 *                                  outstanding one
+	 */
+	public void rollbackTo(int aMark) throws IllegalArgumentException {
+		int depth = removeMark(aMark);
+		Arrays.fill(theData, depth, theTopIndex + 1, null); // help garbage collection
+		theTopIndex = depth - 1;
+	}
+
+	/**
+	 * Keeps the elements pushed since the mark was taken; the mark cannot be used
+	 * afterwards.
+	 * 
+	 * @throws IllegalArgumentException if the mark is not the innermost
+	 *                                  outstanding one
+	 */
+	public void commit(int aMark) throws IllegalArgumentException {
+		removeMark(aMark);
+	}
+
+	/** Removes the innermost mark, which must be aMark, and returns its depth. */
+	private int removeMark(int aMark) throws IllegalArgumentException {
+		if (theMarkCount == 0 || theMarkIds[theMarkCount - 1] != aMark)
+			throw new IllegalArgumentException("Not the innermost outstanding mark: " + aMark);
+		int depth = theMarkDepths[--theMarkCount];
+		theMarkFloor = (theMarkCount == 0) ? 0 : theMarkDepths[theMarkCount - 1];
+		return depth;
+	}
+
+	/** Forgets the marks whose depth is above the current size. */
+	private void dropBrokenMarks() {
+		while (theMarkCount > 0 && theMarkDepths[theMarkCount - 1] > size())
+			theMarkCount--;
+		theMarkFloor = (theMarkCount == 0) ? 0 : theMarkDepths[theMarkCount - 1];
+	}
+
 	public String toString() {
 		StringBuilder tmpStringBuilder = new StringBuilder("(");
 		for (int j = theTopIndex; j >= 0; j--) {
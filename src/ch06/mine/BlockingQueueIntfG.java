@@ -0,0 +1,74 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A queue that additionally lets a thread wait for room to insert an element
+ * or for an element to remove. This is a simplified version of
+ * java.util.concurrent.BlockingQueue. The methods inherited from QueueIntfG
+ * never wait: enqueue throws an exception if the queue is full, and first and
+ * dequeue return null if it is empty.
+ *
+ * @see QueueIntfG
+ */
+public interface BlockingQueueIntfG<E> extends QueueIntfG<E> {
+
+  /**
+   * Inserts an element at the rear of the queue, waiting for room if the
+   * queue is full.
+   * @param e  the element to be inserted
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void put(E e) throws InterruptedException;
+
+  /**
+   * Inserts an element at the rear of the queue, waiting up to the given time
+   * for room if the queue is full.
+   * @param e        the element to be inserted
+   * @param timeout  how long to wait before giving up
+   * @param unit     the unit of timeout
+   * @return true if the element was inserted, false if the time ran out
+   * @throws InterruptedException if interrupted while waiting
+   */
+  boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException;
+
+  /**
+   * Removes and returns the first element of the queue, waiting for one if the
+   * queue is empty.
+   * @return element removed
+   * @throws InterruptedException if interrupted while waiting
+   */
+  E take() throws InterruptedException;
+
+  /**
+   * Removes and returns the first element of the queue, waiting up to the given
+   * time for one if the queue is empty.
+   * @param timeout  how long to wait before giving up
+   * @param unit     the unit of timeout
+   * @return element removed (or null if the time ran out)
+   * @throws InterruptedException if interrupted while waiting
+   */
+  E poll(long timeout, TimeUnit unit) throws InterruptedException;
+}
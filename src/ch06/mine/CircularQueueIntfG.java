@@ -26,6 +26,7 @@ package ch06.mine;
  * This provides one additional method not part of the general Queue interface.
  * A call to Q.rotate() is logically equivalent to the combination
  * Q.enqueue(Q.dequeue()), yet may be implemented more efficiently in some realizations.
+ * Q.rotate(k) rotates by k positions at once.
  *
  * @author Michael T. Goodrich
  * @author Roberto Tamassia
@@ -37,4 +38,18 @@ public interface CircularQueueIntfG<E> extends QueueIntfG<E> {
    * This does nothing if the queue is empty.
    */
   void rotate();
+
+  /**
+   * Rotates the front k elements of the queue to the back of the queue, as if
+   * by k calls to rotate(). A negative k rotates elements from the back to the
+   * front. Since rotating by the size of the queue changes nothing, only k
+   * modulo the size matters. This does nothing if the queue is empty.
+   * @param k  the number of positions to rotate by
+   */
+  default void rotate(int k) {
+    int n = size();
+    if (n > 1)
+      for (int j = Math.floorMod(k, n); j > 0; j--)
+        rotate();
+  }
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.function.Function;
+
+/**
+ * A queue of keyed updates in which only the newest value of each key is
+ * delivered. Keys are queued in the order of their first arrival; enqueuing a
+ * key that is still pending replaces its value in place, without moving it
+ * back, so a burst of updates to one key costs the consumer a single dequeue.
+ * <p>
+ * The keys and values live in a circular array that is doubled when full, as
+ * in GrowableArrayQueueG. An open-addressing hash table with linear probing
+ * maps each pending key to its slot in that array; it is kept at most half
+ * full, and a key leaving the queue is deleted by shifting back the entries of
+ * its probe run, so no tombstones accumulate. Keys must not be null
+ * and must have consistent equals and hashCode. All operations run in expected
+ * amortized constant time.
+ *
+ * @see GrowableArrayQueueG
+ */
+public class CoalescingQueueG<K, V> implements QueueIntfG<V> {
+
+	public static final int DEFAULT_CAPACITY = 16;
+
+	private final Function<? super V, ? extends K> theKeyOf;
+
+	private K[] theKeys;
+
+	private V[] theValues; // parallel to theKeys
+
+	private int[] theIndex; // hash table of slot + 1, 0 when empty
+
+	private int theFrontIndex = 0;
+
+	private int theSize = 0;
+
+	private long theCoalescedCount = 0;
+
+	// constructors
+	/**
+	 * Creates a queue whose enqueue() uses the given function to tell the key of
+	 * a value; offer() takes the key explicitly.
+	 */
+	public CoalescingQueueG(Function<? super V, ? extends K> aKeyOf) {
+		this(aKeyOf, DEFAULT_CAPACITY);
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	public CoalescingQueueG(Function<? super V, ? extends K> aKeyOf, int aInitialCapacity) {
+		if (aKeyOf == null)
+			throw new NullPointerException("Null key function");
+		if (aInitialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aInitialCapacity);
+		theKeyOf = aKeyOf;
+		theKeys = (K[]) new Object[aInitialCapacity]; // safe cast; compiler may give warning
+		theValues = (V[]) new Object[aInitialCapacity];
+		theIndex = new int[tableLength(aInitialCapacity)];
+	}
+
+	/** Returns the number of pending keys. */
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	/** Returns the number of values replaced in place by a newer one. */
+	public long coalescedCount() {
+		return theCoalescedCount;
+	}
+
+	/** Returns true if the key is pending. */
+	public boolean contains(K aKey) {
+		return theIndex[find(aKey)] != 0;
+	}
+
+	/** Enqueues a value under the key given by the key function. */
+	@Override
+	public void enqueue(V aValue) {
+		offer(theKeyOf.apply(aValue), aValue);
+	}
+
+	/**
+	 * Enqueues a value under the given key, or replaces the value of the key if it
+	 * is already pending.
+	 * 
+	 * @return true if the key was added at the back, false if it was coalesced
+	 */
+	public boolean offer(K aKey, V aValue) {
+		if (aKey == null)
+			throw new NullPointerException("Key must not be null");
+		int pos = find(aKey);
+		if (theIndex[pos] != 0) { // pending: keep its place in line
+			theValues[theIndex[pos] - 1] = aValue;
+			theCoalescedCount++;
+			return false;
+		}
+		if (theSize == theKeys.length) {
+			resize(2 * theKeys.length);
+			pos = find(aKey);
+		}
+		int available = (theFrontIndex + theSize) % theKeys.length; // use modular arithmetic
+		theKeys[available] = aKey;
+		theValues[available] = aValue;
+		theIndex[pos] = available + 1;
+		theSize++;
+		return true;
+	}
+
+	/** Returns the key at the front of the queue, or null if empty. */
+	public K firstKey() {
+		return isEmpty() ? null : theKeys[theFrontIndex];
+	}
+
+	/** Returns the newest value of the key at the front, or null if empty. */
+	@Override
+	public V first() {
+		return isEmpty() ? null : theValues[theFrontIndex];
+	}
+
+	/** Removes the key at the front and returns its newest value. */
+	@Override
+	public V dequeue() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			V result = theValues[theFrontIndex];
+			delete(find(theKeys[theFrontIndex]));
+			theKeys[theFrontIndex] = null; // dereference to help garbage collection
+			theValues[theFrontIndex] = null;
+			theFrontIndex = (theFrontIndex + 1) % theKeys.length;
+			theSize--;
+			return result;
+		}
+	}
+
+	/**
+	 * Returns the position of the key in the hash table, or of the empty entry
+	 * that ends its probe run if the key is not pending.
+	 */
+	private int find(Object aKey) {
+		int mask = theIndex.length - 1;
+		int pos = home(aKey, mask);
+		while (theIndex[pos] != 0 && !theKeys[theIndex[pos] - 1].equals(aKey)) {
+			pos = (pos + 1) & mask;
+		}
+		return pos;
+	}
+
+	/**
+	 * Empties the entry at aPos, moving back later entries of the same probe run
+	 * whose home position is not between the hole and themselves.
+	 */
+	private void delete(int aPos) {
+		int mask = theIndex.length - 1;
+		int hole = aPos;
+		int pos = aPos;
+		while (true) {
+			pos = (pos + 1) & mask;
+			if (theIndex[pos] == 0)
+				break;
+			int home = home(theKeys[theIndex[pos] - 1], mask);
+			if (((pos - home) & mask) >= ((pos - hole) & mask)) { // may fill the hole
+				theIndex[hole] = theIndex[pos];
+				hole = pos;
+			}
+		}
+		theIndex[hole] = 0;
+	}
+
+	private static int home(Object aKey, int aMask) {
+		int h = aKey.hashCode() * 0x9E3779B9; // spread the bits
+		return (h ^ (h >>> 16)) & aMask;
+	}
+
+	private static int tableLength(int aCapacity) {
+		return Integer.highestOneBit(Math.max(1, 2 * aCapacity - 1)) << 1; // power of two of at least twice
+	}
+
+	/**
+	 * Moves the keys and values into new arrays of the given length, unwrapping
+	 * them so that the front of the queue lands at index 0, and rebuilds the hash
+	 * table since every slot has moved.
+	 */
+	@SuppressWarnings({ "unchecked" })
+	private void resize(int aCapacity) {
+		K[] tmpKeys = (K[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		V[] tmpValues = (V[]) new Object[aCapacity];
+		int firstPart = Math.min(theSize, theKeys.length - theFrontIndex); // up to the end of the array
+		System.arraycopy(theKeys, theFrontIndex, tmpKeys, 0, firstPart);
+		System.arraycopy(theKeys, 0, tmpKeys, firstPart, theSize - firstPart); // wrapped part
+		System.arraycopy(theValues, theFrontIndex, tmpValues, 0, firstPart);
+		System.arraycopy(theValues, 0, tmpValues, firstPart, theSize - firstPart);
+		theKeys = tmpKeys;
+		theValues = tmpValues;
+		theFrontIndex = 0;
+		theIndex = new int[tableLength(aCapacity)];
+		for (int j = 0; j < theSize; j++) {
+			theIndex[find(theKeys[j])] = j + 1;
+		}
+	}
+
+	/**
+	 * Returns a string representation of the queue as a list of key=value pairs.
+	 * This method runs in O(n) time, where n is the size of the queue.
+	 * 
+	 * @return textual representation of the queue.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		int frontIndex = theFrontIndex;
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theKeys[frontIndex]).append('=').append(theValues[frontIndex]);
+			frontIndex = (frontIndex + 1) % theKeys.length;
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
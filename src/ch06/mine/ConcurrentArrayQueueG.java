@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Implementation of the queue ADT using a fixed-length array that may be shared
+ * by many producer and many consumer threads without locking. Every slot of the
+ * array carries a sequence number that tells whether it is ready to be written
+ * or ready to be read; producers claim a slot by a CAS on the tail counter and
+ * consumers by a CAS on the head counter. The capacity is fixed, as in
+ * ArrayQueueG, but a full queue is reported by offer() returning false rather
+ * than by an exception. The capacity must be at least 2, since with a single
+ * slot a full slot could not be told from one free for the next producer. Null
+ * elements are not permitted, since null is used to report an empty queue.
+ *
+ * @see ArrayQueueG
+ */
+public class ConcurrentArrayQueueG<E> implements QueueIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private final E[] theData;
+
+	// theSequences[i] == position : slot i is free for the producer of position
+	// theSequences[i] == position + 1 : slot i holds the element of position
+	private final AtomicLongArray theSequences;
+
+	private final AtomicLong theHead = new AtomicLong(); // next position to dequeue
+
+	private final AtomicLong theTail = new AtomicLong(); // next position to enqueue
+
+	// constructors
+	public ConcurrentArrayQueueG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	public ConcurrentArrayQueueG(int aCapacity) {
+		if (aCapacity < 2) // with one slot "holds position" equals "free for position + 1"
+			throw new IllegalArgumentException("Capacity must be at least 2: " + aCapacity);
+		theData = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		theSequences = new AtomicLongArray(aCapacity);
+		for (int j = 0; j < aCapacity; j++)
+			theSequences.set(j, j);
+	}
+
+	public int capacity() {
+		return theData.length;
+	}
+
+	/**
+	 * Returns the number of elements in the queue. While other threads are
+	 * updating the queue the value is only a snapshot.
+	 */
+	@Override
+	public int size() {
+		while (true) {
+			long head = theHead.get();
+			long tail = theTail.get();
+			if (head == theHead.get()) { // consistent snapshot
+				long size = tail - head;
+				return (int) Math.max(0, Math.min(size, theData.length));
+			}
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (size() == 0);
+	}
+
+	/**
+	 * Inserts an element at the rear of the queue if there is room for it.
+	 * 
+	 * @param aElement the element to be inserted
+	 * @return true if the element was inserted, false if the queue is full
+	 */
+	public boolean offer(E aElement) {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+		long position = theTail.get();
+		while (true) {
+			int index = (int) (position % theData.length);
+			long sequence = theSequences.get(index);
+			long difference = sequence - position;
+			if (difference == 0) { // slot is free; try to claim it
+				if (theTail.compareAndSet(position, position + 1)) {
+					theData[index] = aElement;
+					theSequences.set(index, position + 1); // publish to consumers
+					return true;
+				}
+				position = theTail.get();
+			} else if (difference < 0) { // slot still holds an element one lap behind
+				return false;
+			} else { // another producer got here first
+				position = theTail.get();
+			}
+		}
+	}
+
+	@Override
+	public void enqueue(E aElement) throws IllegalStateException {
+		if (!offer(aElement))
+			throw new IllegalStateException("Queue is full");
+	}
+
+	@Override
+	public E first() {
+		while (true) {
+			long position = theHead.get();
+			int index = (int) (position % theData.length);
+			long sequence = theSequences.get(index);
+			if (sequence - (position + 1) < 0)
+				return null; // nothing published at the head
+			E result = theData[index];
+			if (position == theHead.get() && result != null)
+				return result; // head did not move while we were reading
+		}
+	}
+
+	@Override
+	public E dequeue() {
+		long position = theHead.get();
+		while (true) {
+			int index = (int) (position % theData.length);
+			long sequence = theSequences.get(index);
+			long difference = sequence - (position + 1);
+			if (difference == 0) { // slot is published; try to claim it
+				if (theHead.compareAndSet(position, position + 1)) {
+					E result = theData[index];
+					theData[index] = null; // dereference to help garbage collection
+					theSequences.set(index, position + theData.length); // free for the next lap
+					return result;
+				}
+				position = theHead.get();
+			} else if (difference < 0) { // producer has not published yet
+				return null;
+			} else { // another consumer got here first
+				position = theHead.get();
+			}
+		}
+	}
+
+	/**
+	 * Returns a string representation of the queue as a list of elements. The
+	 * result is only meaningful while no other thread is updating the queue.
+	 * 
+	 * @return textual representation of the queue.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		long head = theHead.get();
+		long tail = theTail.get();
+		for (long position = head; position < tail; position++) {
+			if (position > head)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theData[(int) (position % theData.length)]);
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Realization of a stack as a lock-free linked list (Treiber's algorithm). The
+ * top of the stack is an atomic reference that push and pop update with a
+ * compare-and-set, so any number of threads can use the stack without a lock.
+ * Every push allocates a fresh node and nodes are never recycled, so a node
+ * seen by a thread cannot be reused behind its back while it holds a reference
+ * to it; the garbage collector therefore rules out the ABA problem.
+ * <p>
+ * When many threads compete for the top, a failed compare-and-set can
+ * optionally be followed by a randomized exponential backoff, which spreads the
+ * retries out and reduces cache-line ping-pong. Null elements are not
+ * permitted, since null is used to report an empty stack.
+ *
+ * @see LinkedStackG
+ */
+public class ConcurrentLinkedStackG<E> implements StackIntfG<E> {
+	// ---------------- nested Node class ----------------
+	/**
+	 * Immutable node of the stack. Each node records the size of the stack it
+	 * heads, so size() needs no separate counter.
+	 */
+	private static class Node<E> {
+
+		private final E theElement;
+
+		private final Node<E> theNext;
+
+		private final int theSize;
+
+		public Node(E aElement, Node<E> aNode) {
+			theElement = aElement;
+			theNext = aNode;
+			theSize = (aNode == null) ? 1 : aNode.theSize + 1;
+		}
+
+		public E getElement() {
+			return theElement;
+		}
+
+		public Node<E> getNext() {
+			return theNext;
+		}
+
+		public int getSize() {
+			return theSize;
+		}
+	} // ----------- end of nested Node class -----------
+
+	private static final int MIN_BACKOFF = 1;
+
+	private static final int MAX_BACKOFF = 1 << 10;
+
+	private final AtomicReference<Node<E>> theTop = new AtomicReference<>();
+
+	private final boolean theBackoff;
+
+	/** Constructs a stack that retries immediately after a failed update. */
+	public ConcurrentLinkedStackG() {
+		this(false);
+	}
+
+	/**
+	 * Constructs a stack.
+	 * 
+	 * @param aBackoff whether to back off exponentially after a failed update
+	 */
+	public ConcurrentLinkedStackG(boolean aBackoff) {
+		theBackoff = aBackoff;
+	}
+
+	@Override
+	public int size() {
+		Node<E> top = theTop.get();
+		return (top == null) ? 0 : top.getSize();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theTop.get() == null);
+	}
+
+	@Override
+	public void push(E aElement) {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+		int backoff = MIN_BACKOFF;
+		while (true) {
+			Node<E> top = theTop.get();
+			Node<E> newest = new Node<>(aElement, top);
+			if (theTop.compareAndSet(top, newest))
+				return;
+			backoff = backoff(backoff);
+		}
+	}
+
+	@Override
+	public E top() {
+		Node<E> top = theTop.get();
+		return (top == null) ? null : top.getElement();
+	}
+
+	@Override
+	public E pop() {
+		int backoff = MIN_BACKOFF;
+		while (true) {
+			Node<E> top = theTop.get();
+			if (top == null)
+				return null;
+			if (theTop.compareAndSet(top, top.getNext()))
+				return top.getElement();
+			backoff = backoff(backoff);
+		}
+	}
+
+	/**
+	 * Spins for a random number of iterations below aLimit if backoff is enabled
+	 * and returns the limit to use after the next failure.
+	 */
+	private int backoff(int aLimit) {
+		if (!theBackoff)
+			return aLimit;
+		int spins = ThreadLocalRandom.current().nextInt(aLimit) + 1;
+		for (int j = 0; j < spins; j++)
+			Thread.onSpinWait();
+		return Math.min(aLimit << 1, MAX_BACKOFF);
+	}
+
+	/**
+	 * Produces a string representation of the stack, top first. The result is a
+	 * consistent snapshot even while other threads are updating the stack.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		for (Node<E> walk = theTop.get(); walk != null; walk = walk.getNext()) {
+			tmpStringBuilder.append(walk.getElement());
+			if (walk.getNext() != null)
+				tmpStringBuilder.append(", ");
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+// GENERATED FROM ch06/mine/gen/ArrayQueue.template BY ch06.mine.gen.PrimitiveGenerator - DO NOT EDIT
+
+/**
+ * Implementation of the queue ADT for double values, stored unboxed in a
+ * circular array. The array is doubled when an enqueue finds it full, so
+ * enqueue runs in amortized constant time and the other operations in constant
+ * time. Apart from the occasional resize no operation allocates.
+ *
+ * @see ArrayQueueG
+ */
+public class DoubleArrayQueue {
+
+	public static final int DEFAULT_CAPACITY = 16;
+
+	private double[] theData;
+
+	private int theFrontIndex = 0;
+
+	private int theSize = 0;
+
+	// constructors
+	public DoubleArrayQueue() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public DoubleArrayQueue(int aCapacity) { // capacity is only a hint
+		if (aCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aCapacity);
+		theData = new double[aCapacity];
+	}
+
+	public int size() {
+		return theSize;
+	}
+
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	public void enqueue(double aValue) {
+		if (theSize == theData.length) {
+			resize(2 * theData.length);
+		}
+		int available = (theFrontIndex + theSize) % theData.length; // use modular arithmetic
+		theData[available] = aValue;
+		theSize++;
+	}
+
+	/**
+	 * Returns, but does not remove, the first value of the queue.
+	 * @throws IllegalStateException if the queue is empty
+	 */
+	public double first() throws IllegalStateException {
+		if (isEmpty()) {
+			throw new IllegalStateException("Queue is empty");
+		} else {
+			return theData[theFrontIndex];
+		}
+	}
+
+	/**
+	 * Removes and returns the first value of the queue.
+	 * @throws IllegalStateException if the queue is empty
+	 */
+	public double dequeue() throws IllegalStateException {
+		if (isEmpty()) {
+			throw new IllegalStateException("Queue is empty");
+		} else {
+			double result = theData[theFrontIndex];
+			theFrontIndex = (theFrontIndex + 1) % theData.length;
+			theSize--;
+			return result;
+		}
+	}
+
+	/** Moves the values into a new array, with the front landing at index 0. */
+	private void resize(int aCapacity) {
+		double[] tmpData = new double[aCapacity];
+		int firstPart = Math.min(theSize, theData.length - theFrontIndex); // up to the end of the array
+		System.arraycopy(theData, theFrontIndex, tmpData, 0, firstPart);
+		System.arraycopy(theData, 0, tmpData, firstPart, theSize - firstPart); // wrapped part
+		theData = tmpData;
+		theFrontIndex = 0;
+	}
+
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		int frontIndex = theFrontIndex;
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theData[frontIndex]);
+			frontIndex = (frontIndex + 1) % theData.length;
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
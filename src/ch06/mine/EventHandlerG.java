@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * Callback through which an EventProcessorG hands events of a RingBufferG to
+ * the consumer's logic.
+ *
+ * @see EventProcessorG
+ */
+public interface EventHandlerG<E> {
+
+  /**
+   * Handles one event. The event object belongs to the ring buffer and is
+   * reused for later sequences, so it must not be kept after this call.
+   * @param aEvent       the event, read in place
+   * @param aSequence    its sequence number
+   * @param aEndOfBatch  true if this is the last event currently available
+   */
+  void onEvent(E aEvent, long aSequence, boolean aEndOfBatch) throws Exception;
+}
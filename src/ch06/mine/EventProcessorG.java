@@ -0,0 +1,97 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs one consumer of a RingBufferG: it waits on its barrier, hands every
+ * available event to its handler in place, and then advances its own sequence
+ * once per batch. Other consumers and, through the gating sequences, the
+ * producers observe that sequence. Run it on a thread of its own and stop it
+ * with halt(). An exception thrown by the handler stops the processor and is
+ * rethrown from run().
+ *
+ * @see RingBufferG
+ * @see EventHandlerG
+ */
+public class EventProcessorG<E> implements Runnable {
+
+	private final RingBufferG<E> theRingBuffer;
+
+	private final SequenceBarrierG theBarrier;
+
+	private final EventHandlerG<? super E> theHandler;
+
+	private final SequenceG theSequence = new SequenceG();
+
+	private final AtomicBoolean theRunning = new AtomicBoolean(false);
+
+	public EventProcessorG(RingBufferG<E> aRingBuffer, SequenceBarrierG aBarrier, EventHandlerG<? super E> aHandler) {
+		theRingBuffer = aRingBuffer;
+		theBarrier = aBarrier;
+		theHandler = aHandler;
+	}
+
+	/** Returns the sequence of the last event this processor has handled. */
+	public SequenceG getSequence() {
+		return theSequence;
+	}
+
+	/** Makes run() return once the current batch is done. */
+	public void halt() {
+		theRunning.set(false);
+		theBarrier.alert();
+	}
+
+	@Override
+	public void run() {
+		if (!theRunning.compareAndSet(false, true))
+			throw new IllegalStateException("Processor is already running");
+		theBarrier.clearAlert();
+		long next = theSequence.get() + 1;
+		try {
+			while (true) {
+				try {
+					long available = theBarrier.waitFor(next);
+					while (next <= available) {
+						theHandler.onEvent(theRingBuffer.get(next), next, next == available);
+						next++;
+					}
+					theSequence.set(available); // one store per batch
+				} catch (SequenceBarrierG.AlertException e) {
+					if (!theRunning.get())
+						break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		} finally {
+			theRunning.set(false);
+		}
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of the queue ADT in which every element carries an expiry
+ * deadline and is dropped, rather than delivered, once the deadline has
+ * passed. The elements live in a circular array as in GrowableArrayQueueG
+ * (doubled when full) with the deadlines in a parallel array of longs.
+ * <p>
+ * Expiry is lazy: first and dequeue read the clock once, scan the deadlines
+ * from the front while they have passed, and release that whole prefix at once
+ * by clearing its slots and jumping the front index past it, before looking at
+ * the first live element. An expired element behind a live one is only
+ * released when it reaches the front, so size() counts elements that have not
+ * been released yet, some of which may already be expired. Call expire() to
+ * release an expired prefix without dequeuing. The number of elements dropped
+ * so far is reported by expiredCount().
+ * <p>
+ * Deadlines are compared as deadline - now <= 0, so a clock such as
+ * System.nanoTime() that may wrap around is fine. All operations run in
+ * amortized constant time per element enqueued.
+ *
+ * @see GrowableArrayQueueG
+ */
+public class ExpiringQueueG<E> implements QueueIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 16;
+
+	private final LongSupplier theClock;
+
+	private final long theDefaultTtl;
+
+	private E[] theData;
+
+	private long[] theDeadlines; // parallel to theData
+
+	private int theFrontIndex = 0;
+
+	private int theSize = 0;
+
+	private long theExpiredCount = 0;
+
+	// constructors
+	/**
+	 * Creates a queue on the System.nanoTime() clock.
+	 * 
+	 * @param aDefaultTtl time to live, in nanoseconds, of elements enqueued
+	 *                    without one
+	 */
+	public ExpiringQueueG(long aDefaultTtl) {
+		this(aDefaultTtl, System::nanoTime, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param aDefaultTtl      time to live of elements enqueued without one, in
+	 *                         the units of the clock
+	 * @param aClock           source of the current time
+	 * @param aInitialCapacity initial length of the array
+	 */
+	@SuppressWarnings({ "unchecked" })
+	public ExpiringQueueG(long aDefaultTtl, LongSupplier aClock, int aInitialCapacity) {
+		if (aDefaultTtl < 0)
+			throw new IllegalArgumentException("TTL must not be negative: " + aDefaultTtl);
+		if (aInitialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aInitialCapacity);
+		theDefaultTtl = aDefaultTtl;
+		theClock = aClock;
+		theData = (E[]) new Object[aInitialCapacity]; // safe cast; compiler may give warning
+		theDeadlines = new long[aInitialCapacity];
+	}
+
+	/**
+	 * Returns the number of elements not yet released, including expired ones
+	 * that have not reached the front.
+	 */
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	/** Returns the number of elements dropped because they expired. */
+	public long expiredCount() {
+		return theExpiredCount;
+	}
+
+	/** Enqueues an element that expires after the default time to live. */
+	@Override
+	public void enqueue(E aElement) {
+		enqueueAt(aElement, theClock.getAsLong() + theDefaultTtl);
+	}
+
+	/** Enqueues an element that expires after the given time to live. */
+	public void enqueue(E aElement, long aTtl) {
+		enqueueAt(aElement, theClock.getAsLong() + aTtl);
+	}
+
+	/** Enqueues an element that expires at the given time of the clock. */
+	public void enqueueAt(E aElement, long aDeadline) {
+		if (theSize == theData.length) {
+			resize(2 * theData.length);
+		}
+		int available = (theFrontIndex + theSize) % theData.length; // use modular arithmetic
+		theData[available] = aElement;
+		theDeadlines[available] = aDeadline;
+		theSize++;
+	}
+
+	/** Returns the first live element without removing it, or null if none. */
+	@Override
+	public E first() {
+		release(theClock.getAsLong());
+		return isEmpty() ? null : theData[theFrontIndex];
+	}
+
+	/** Removes and returns the first live element, or null if none. */
+	@Override
+	public E dequeue() {
+		release(theClock.getAsLong());
+		if (isEmpty()) {
+			return null;
+		} else {
+			E result = theData[theFrontIndex];
+			theData[theFrontIndex] = null; // dereference to help garbage collection
+			theFrontIndex = (theFrontIndex + 1) % theData.length;
+			theSize--;
+			return result;
+		}
+	}
+
+	/**
+	 * Releases the expired elements at the front of the queue.
+	 * 
+	 * @return the number of elements released
+	 */
+	public int expire() {
+		return release(theClock.getAsLong());
+	}
+
+	/**
+	 * Releases the longest prefix of elements whose deadline is not after aNow:
+	 * the deadlines are scanned, then the slots are cleared with at most two
+	 * fills (the prefix may wrap around the end of the array) and the front
+	 * index jumps past them.
+	 */
+	private int release(long aNow) {
+		int count = 0;
+		int index = theFrontIndex;
+		while (count < theSize && theDeadlines[index] - aNow <= 0) {
+			count++;
+			if (++index == theData.length)
+				index = 0;
+		}
+		if (count > 0) {
+			int firstPart = Math.min(count, theData.length - theFrontIndex); // up to the end of the array
+			Arrays.fill(theData, theFrontIndex, theFrontIndex + firstPart, null);
+			Arrays.fill(theData, 0, count - firstPart, null); // wrapped part
+			theFrontIndex = index;
+			theSize -= count;
+			theExpiredCount += count;
+		}
+		return count;
+	}
+
+	/**
+	 * Moves the elements and their deadlines into new arrays of the given length,
+	 * unwrapping them so that the front of the queue lands at index 0.
+	 */
+	@SuppressWarnings({ "unchecked" })
+	private void resize(int aCapacity) {
+		E[] tmpData = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		long[] tmpDeadlines = new long[aCapacity];
+		int firstPart = Math.min(theSize, theData.length - theFrontIndex); // up to the end of the array
+		System.arraycopy(theData, theFrontIndex, tmpData, 0, firstPart);
+		System.arraycopy(theData, 0, tmpData, firstPart, theSize - firstPart); // wrapped part
+		System.arraycopy(theDeadlines, theFrontIndex, tmpDeadlines, 0, firstPart);
+		System.arraycopy(theDeadlines, 0, tmpDeadlines, firstPart, theSize - firstPart);
+		theData = tmpData;
+		theDeadlines = tmpDeadlines;
+		theFrontIndex = 0;
+	}
+
+	/**
+	 * Returns a string representation of the queue as a list of elements, expired
+	 * or not. This method runs in O(n) time, where n is the size of the queue.
+	 * 
+	 * @return textual representation of the queue.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		int frontIndex = theFrontIndex;
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theData[frontIndex]);
+			frontIndex = (frontIndex + 1) % theData.length;
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
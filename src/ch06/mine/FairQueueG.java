@@ -0,0 +1,235 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * A queue shared by several tenants that is served by deficit round-robin, so
+ * that a tenant enqueuing heavily cannot starve the others. Each tenant has a
+ * sub-queue of its own; tenants with waiting elements take turns in a circular
+ * queue of active tenants. At the start of its turn a tenant is credited with
+ * quantum times its weight, and it is served as long as that credit covers the
+ * cost of its first element (1 per element unless a cost function is given);
+ * then the ring is rotated to the next tenant, carrying the unspent credit to
+ * the tenant's next turn. A tenant whose sub-queue runs empty leaves the ring
+ * at once and loses its credit, and its state is dropped, so tenants that come
+ * and go do not accumulate; only weights set with setWeight are remembered.
+ * <p>
+ * The ring is settled after every enqueue and dequeue: rotated until the
+ * tenant at its front has the credit for its first element. first() therefore
+ * only looks at the front and changes nothing.
+ * <p>
+ * A tenant waits at most one round of the other active tenants before being
+ * served again. When quantum times the smallest weight is at least the
+ * largest element cost, every turn serves at least one element, so dequeue
+ * runs in amortized constant time however many tenants there are; enqueue
+ * takes expected constant time (one hash lookup).
+ *
+ * @see CircularQueueIntfG
+ * @see LinkedCircularQueueG
+ */
+public class FairQueueG<E, T> implements QueueIntfG<E> {
+
+	/** Per-tenant state. */
+	private static class Tenant<E, T> {
+
+		private final T theKey;
+
+		private final QueueIntfG<E> theQueue;
+
+		private int theWeight;
+
+		private long theDeficit = 0; // unspent credit
+
+		private boolean theNewTurn = true; // credit not yet added for this turn
+
+		public Tenant(T aKey, QueueIntfG<E> aQueue, int aWeight) {
+			theKey = aKey;
+			theQueue = aQueue;
+			theWeight = aWeight;
+		}
+	}
+
+	public static final int DEFAULT_QUANTUM = 1;
+
+	private final Function<? super E, ? extends T> theTenantOf;
+
+	private final ToIntFunction<? super E> theCost;
+
+	private final Supplier<? extends QueueIntfG<E>> theQueueFactory;
+
+	private final int theQuantum;
+
+	private final Map<T, Tenant<E, T>> theTenants = new HashMap<>(); // tenants in the ring
+
+	private final Map<T, Integer> theWeights = new HashMap<>(); // weights other than 1
+
+	private final CircularQueueIntfG<Tenant<E, T>> theActive = new LinkedCircularQueueG<>();
+
+	private int theSize = 0;
+
+	/**
+	 * Creates a fair queue in which every element costs 1 and every turn is worth
+	 * one element per unit of weight.
+	 * 
+	 * @param aTenantOf tells which tenant an element belongs to
+	 */
+	public FairQueueG(Function<? super E, ? extends T> aTenantOf) {
+		this(aTenantOf, e -> 1, DEFAULT_QUANTUM, LinkedQueueG::new);
+	}
+
+	/**
+	 * @param aTenantOf     tells which tenant an element belongs to
+	 * @param aCost         cost of an element, e.g. its size in bytes; at least 1
+	 * @param aQuantum      credit per turn per unit of weight
+	 * @param aQueueFactory creates the sub-queue of each new tenant
+	 */
+	public FairQueueG(Function<? super E, ? extends T> aTenantOf, ToIntFunction<? super E> aCost, int aQuantum,
+			Supplier<? extends QueueIntfG<E>> aQueueFactory) {
+		if (aQuantum < 1)
+			throw new IllegalArgumentException("Quantum must be positive: " + aQuantum);
+		theTenantOf = aTenantOf;
+		theCost = aCost;
+		theQuantum = aQuantum;
+		theQueueFactory = aQueueFactory;
+	}
+
+	/**
+	 * Sets the share of a tenant relative to the others; a tenant of weight 2
+	 * receives twice the credit per turn of a tenant of weight 1.
+	 */
+	public void setWeight(T aTenant, int aWeight) {
+		if (aWeight < 1)
+			throw new IllegalArgumentException("Weight must be positive: " + aWeight);
+		if (aWeight == 1)
+			theWeights.remove(aTenant);
+		else
+			theWeights.put(aTenant, aWeight);
+		Tenant<E, T> tenant = theTenants.get(aTenant);
+		if (tenant != null)
+			tenant.theWeight = aWeight; // from its next turn on
+	}
+
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	/** Returns the number of tenants that currently have waiting elements. */
+	public int activeTenants() {
+		return theActive.size();
+	}
+
+	/** Returns the number of elements waiting for the given tenant. */
+	public int size(T aTenant) {
+		Tenant<E, T> tenant = theTenants.get(aTenant);
+		return (tenant == null) ? 0 : tenant.theQueue.size();
+	}
+
+	@Override
+	public void enqueue(E aElement) {
+		T key = theTenantOf.apply(aElement);
+		Tenant<E, T> tenant = theTenants.get(key);
+		if (tenant == null) { // joins the ring at the back
+			tenant = new Tenant<>(key, theQueueFactory.get(), theWeights.getOrDefault(key, 1));
+			theTenants.put(key, tenant);
+			theActive.enqueue(tenant);
+		}
+		tenant.theQueue.enqueue(aElement);
+		theSize++;
+		if (theActive.first() == tenant)
+			settle(); // the head of the front tenant may have changed
+	}
+
+	@Override
+	public E first() {
+		return isEmpty() ? null : theActive.first().theQueue.first();
+	}
+
+	@Override
+	public E dequeue() {
+		if (isEmpty())
+			return null;
+		Tenant<E, T> tenant = theActive.first();
+		E result = tenant.theQueue.dequeue();
+		tenant.theDeficit -= cost(result);
+		theSize--;
+		if (tenant.theQueue.isEmpty()) { // idle tenants leave the ring and are forgotten
+			theActive.dequeue(); // it is at the front
+			theTenants.remove(tenant.theKey);
+		}
+		settle();
+		return result;
+	}
+
+	/**
+	 * Rotates the ring until the tenant at its front has the credit for its first
+	 * element, crediting each tenant as its turn begins.
+	 */
+	private void settle() {
+		while (!theActive.isEmpty()) {
+			Tenant<E, T> tenant = theActive.first();
+			if (tenant.theNewTurn) {
+				tenant.theDeficit += (long) theQuantum * tenant.theWeight;
+				tenant.theNewTurn = false;
+			}
+			if (cost(tenant.theQueue.first()) <= tenant.theDeficit)
+				return;
+			tenant.theNewTurn = true; // turn over; keep the unspent credit
+			theActive.rotate();
+		}
+	}
+
+	private int cost(E aElement) {
+		return Math.max(1, theCost.applyAsInt(aElement));
+	}
+
+	public String toString() {
+		return "FairQueueG(size=" + theSize + ", activeTenants=" + theActive.size() + ")";
+	}
+
+	/** Demonstrates that a noisy tenant does not starve a quiet one. */
+	public static void main(String[] args) {
+		FairQueueG<String, Character> queue = new FairQueueG<>(e -> e.charAt(0));
+		queue.setWeight('b', 2);
+		for (int j = 0; j < 1000; j++)
+			queue.enqueue("a" + j); // the noisy tenant floods the queue first
+		for (int j = 0; j < 4; j++)
+			queue.enqueue("b" + j);
+		queue.enqueue("c0");
+		StringBuilder order = new StringBuilder();
+		for (int j = 0; j < 10; j++)
+			order.append(queue.dequeue()).append(' ');
+		System.out.println(order); // outputs a0 b0 b1 c0 a1 b2 b3 a2 a3 a4
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * Implementation of the queue ADT using a circular array that grows and shrinks
+ * with the number of elements. The array is doubled when an enqueue finds it
+ * full, and halved when a dequeue leaves it at most one quarter full; the gap
+ * between the two thresholds keeps an alternating enqueue/dequeue at the
+ * boundary from resizing over and over. The array never shrinks below the
+ * initial capacity. When the array is resized the elements, which may wrap
+ * around the end of the old array, are copied to the front of the new one. All
+ * operations run in amortized constant time.
+ *
+ * @see ArrayQueueG
+ */
+public class GrowableArrayQueueG<E> implements QueueIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 16;
+
+	private final int theMinCapacity;
+
+	private E[] theData;
+
+	private int theFrontIndex = 0;
+
+	private int theSize = 0;
+
+	// constructors
+	public GrowableArrayQueueG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	public GrowableArrayQueueG(int aInitialCapacity) { // capacity is only a hint
+		if (aInitialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aInitialCapacity);
+		theMinCapacity = aInitialCapacity;
+		theData = (E[]) new Object[aInitialCapacity]; // safe cast; compiler may give warning
+	}
+
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	/** Returns the current length of the underlying array. */
+	public int capacity() {
+		return theData.length;
+	}
+
+	@Override
+	public void enqueue(E aElement) {
+		if (theSize == theData.length) {
+			resize(2 * theData.length);
+		}
+		int available = (theFrontIndex + theSize) % theData.length; // use modular arithmetic
+		theData[available] = aElement;
+		theSize++;
+	}
+
+	@Override
+	public E first() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theData[theFrontIndex];
+		}
+	}
+
+	@Override
+	public E dequeue() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			E result = theData[theFrontIndex];
+			theData[theFrontIndex] = null; // dereference to help garbage collection
+			theFrontIndex = (theFrontIndex + 1) % theData.length;
+			theSize--;
+			if (theData.length > theMinCapacity && theSize <= theData.length / 4) {
+				resize(Math.max(theMinCapacity, theData.length / 2));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Moves the elements into a new array of the given length, unwrapping them so
+	 * that the front of the queue lands at index 0.
+	 */
+	@SuppressWarnings({ "unchecked" })
+	private void resize(int aCapacity) {
+		E[] tmpData = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		int firstPart = Math.min(theSize, theData.length - theFrontIndex); // up to the end of the array
+		System.arraycopy(theData, theFrontIndex, tmpData, 0, firstPart);
+		System.arraycopy(theData, 0, tmpData, firstPart, theSize - firstPart); // wrapped part
+		theData = tmpData;
+		theFrontIndex = 0;
+	}
+
+	/**
+	 * Returns a string representation of the queue as a list of elements. This
+	 * method runs in O(n) time, where n is the size of the queue.
+	 * 
+	 * @return textual representation of the queue.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		int frontIndex = theFrontIndex;
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theData[frontIndex]);
+			frontIndex = (frontIndex + 1) % theData.length;
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * Implementation of the stack ADT using an array that grows and shrinks with
+ * the number of elements. The array is doubled when a push finds it full, and
+ * halved when a pop leaves it at most one quarter full; the gap between the two
+ * thresholds keeps an alternating push/pop at the boundary from resizing over
+ * and over. The array never shrinks below the initial capacity. All operations
+ * run in amortized constant time.
+ *
+ * @see ArrayStackG
+ */
+public class GrowableArrayStackG<E> implements StackIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 16;
+	private final int theMinCapacity;
+	private E[] theData;
+	private int theTopIndex = -1;
+
+	public GrowableArrayStackG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	public GrowableArrayStackG(int aInitialCapacity) { // capacity is only a hint
+		if (aInitialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aInitialCapacity);
+		theMinCapacity = aInitialCapacity;
+		theData = (E[]) new Object[aInitialCapacity]; // safe cast; compiler may give warning
+	}
+
+	@Override
+	public int size() {
+		return (theTopIndex + 1);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theTopIndex == -1);
+	}
+
+	/** Returns the current length of the underlying array. */
+	public int capacity() {
+		return theData.length;
+	}
+
+	@Override
+	public void push(E e) {
+		if (size() == theData.length) {
+			resize(2 * theData.length);
+		}
+		theTopIndex = theTopIndex + 1;
+		theData[theTopIndex] = e;
+	}
+
+	@Override
+	public E top() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theData[theTopIndex];
+		}
+	}
+
+	@Override
+	public E pop() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			E result = theData[theTopIndex];
+			theData[theTopIndex] = null; // dereference to help garbage collection
+			theTopIndex = theTopIndex - 1;
+			if (theData.length > theMinCapacity && size() <= theData.length / 4) {
+				resize(Math.max(theMinCapacity, theData.length / 2));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Returns, but does not remove, the element at the given distance from the
+	 * bottom of the stack.
+	 * 
+	 * @throws IndexOutOfBoundsException if aIndex is not in [0, size())
+	 */
+	public E get(int aIndex) throws IndexOutOfBoundsException {
+		if (aIndex < 0 || aIndex > theTopIndex)
+			throw new IndexOutOfBoundsException("Invalid index: " + aIndex);
+		return theData[aIndex];
+	}
+
+	/** Moves the elements into a new array of the given length. */
+	@SuppressWarnings({ "unchecked" })
+	private void resize(int aCapacity) {
+		E[] tmpData = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		System.arraycopy(theData, 0, tmpData, 0, size());
+		theData = tmpData;
+	}
+
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		for (int j = theTopIndex; j >= 0; j--) {
+			tmpStringBuilder.append(theData[j]);
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An array-based binary heap whose entries can be reached after insertion
+ * through a long handle, so that an entry's key can be decreased or the entry
+ * removed (for example, a timed job rescheduled or cancelled) in O(log n) time.
+ * Slots are kept in two int arrays mapping heap index to slot and slot to heap
+ * index; the slot of a removed entry is recycled for a later insert. A handle
+ * packs the slot with a generation count that is bumped whenever the slot is
+ * freed, so a stale handle (such as that of a job that has already fired) is
+ * rejected rather than acting on the entry that reuses its slot.
+ *
+ * @see ArrayHeapPriorityQueueG
+ */
+public class IndexedHeapPriorityQueueG<K, V> extends ArrayHeapPriorityQueueG<K, V> {
+
+	private int[] theHandleAt; // slot of the entry at each heap index
+
+	private int[] theIndexOf; // heap index of each slot, or -1 if unused
+
+	private int[] theGenerations; // times each slot has been freed
+
+	private int theHandleCount = 0; // slots ever given out
+
+	private int[] theFreeHandles; // stack of slots available for reuse
+
+	private int theFreeCount = 0;
+
+	public IndexedHeapPriorityQueueG() {
+		this(DEFAULT_CAPACITY, null);
+	}
+
+	public IndexedHeapPriorityQueueG(int aCapacity, Comparator<? super K> aComparator) {
+		super(aCapacity, aComparator);
+		theHandleAt = new int[theKeys.length];
+		theIndexOf = new int[theKeys.length];
+		theGenerations = new int[theKeys.length];
+		theFreeHandles = new int[theKeys.length];
+	}
+
+	/**
+	 * Inserts a value with the given key and returns a handle to the new entry.
+	 * The handle stays valid until the entry is removed, and is never valid again
+	 * afterwards.
+	 */
+	public long insertHandle(K aKey, V aValue) throws IllegalArgumentException {
+		compare(aKey, aKey); // rejects keys before any bookkeeping is changed
+		if (theSize == theKeys.length)
+			grow(2 * theKeys.length);
+		int slot = (theFreeCount > 0) ? theFreeHandles[--theFreeCount] : theHandleCount++;
+		theHandleAt[theSize] = slot;
+		theIndexOf[slot] = theSize;
+		super.insert(aKey, aValue);
+		return handleOf(slot);
+	}
+
+	@Override
+	public void insert(K aKey, V aValue) throws IllegalArgumentException {
+		insertHandle(aKey, aValue);
+	}
+
+	/** Returns the handle of the entry with the smallest key, or -1 if empty. */
+	public long minHandle() {
+		return isEmpty() ? -1 : handleOf(theHandleAt[0]);
+	}
+
+	public boolean contains(long aHandle) {
+		int slot = (int) aHandle;
+		return aHandle >= 0 && slot >= 0 && slot < theHandleCount && theIndexOf[slot] >= 0
+				&& theGenerations[slot] == (int) (aHandle >>> 32);
+	}
+
+	public K keyOf(long aHandle) throws IllegalArgumentException {
+		return theKeys[indexOf(aHandle)];
+	}
+
+	public V valueOf(long aHandle) throws IllegalArgumentException {
+		return theValues[indexOf(aHandle)];
+	}
+
+	/**
+	 * Replaces the key of an entry with a key that is not larger.
+	 * 
+	 * @throws IllegalArgumentException if the handle is invalid or the new key is
+	 *                                  larger than the current one
+	 */
+	public void decreaseKey(long aHandle, K aKey) throws IllegalArgumentException {
+		int index = indexOf(aHandle);
+		if (compare(aKey, theKeys[index]) > 0)
+			throw new IllegalArgumentException("New key is larger: " + aKey);
+		theKeys[index] = aKey;
+		upheap(index);
+	}
+
+	/**
+	 * Removes an entry and returns its value.
+	 * 
+	 * @throws IllegalArgumentException if the handle is invalid
+	 */
+	public V remove(long aHandle) throws IllegalArgumentException {
+		return removeAt(indexOf(aHandle));
+	}
+
+	@Override
+	protected V removeAt(int aIndex) {
+		int slot = theHandleAt[aIndex];
+		V result = super.removeAt(aIndex);
+		theIndexOf[slot] = -1;
+		theGenerations[slot] = (theGenerations[slot] + 1) & Integer.MAX_VALUE; // outdates its handles
+		theFreeHandles[theFreeCount++] = slot;
+		return result;
+	}
+
+	@Override
+	protected void swap(int i, int j) {
+		super.swap(i, j);
+		int tmpHandle = theHandleAt[i];
+		theHandleAt[i] = theHandleAt[j];
+		theHandleAt[j] = tmpHandle;
+		theIndexOf[theHandleAt[i]] = i;
+		theIndexOf[theHandleAt[j]] = j;
+	}
+
+	@Override
+	protected void grow(int aCapacity) {
+		super.grow(aCapacity);
+		theHandleAt = Arrays.copyOf(theHandleAt, aCapacity);
+		theIndexOf = Arrays.copyOf(theIndexOf, aCapacity);
+		theGenerations = Arrays.copyOf(theGenerations, aCapacity);
+		theFreeHandles = Arrays.copyOf(theFreeHandles, aCapacity);
+	}
+
+	/** Packs a slot with its current generation into a handle. */
+	private long handleOf(int aSlot) {
+		return ((long) theGenerations[aSlot] << 32) | aSlot;
+	}
+
+	private int indexOf(long aHandle) throws IllegalArgumentException {
+		if (!contains(aHandle))
+			throw new IllegalArgumentException("Invalid handle: " + aHandle);
+		return theIndexOf[(int) aHandle];
+	}
+}
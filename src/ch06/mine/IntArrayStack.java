@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.Arrays;
+
+// GENERATED FROM ch06/mine/gen/ArrayStack.template BY ch06.mine.gen.PrimitiveGenerator - DO NOT EDIT
+
+/**
+ * Implementation of the stack ADT for int values, stored unboxed in an array.
+ * The array is doubled when a push finds it full, so push runs in amortized
+ * constant time and the other operations in constant time. Apart from the
+ * occasional resize no operation allocates.
+ *
+ * @see ArrayStackG
+ */
+public class IntArrayStack {
+
+	public static final int DEFAULT_CAPACITY = 16;
+	private int[] theData;
+	private int theTopIndex = -1;
+	private int[] theMarkIds; // outstanding marks, innermost last; allocated by the first mark
+	private int[] theMarkDepths; // depth of the stack when each mark was taken
+	private int theMarkCount = 0;
+	private int theNextMarkId = 0;
+	private int theMarkFloor = 0; // depth of the innermost mark; popping below it breaks marks
+
+	public IntArrayStack() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public IntArrayStack(int aCapacity) { // capacity is only a hint
+		if (aCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aCapacity);
+		theData = new int[aCapacity];
+	}
+
+	public int size() {
+		return (theTopIndex + 1);
+	}
+
+	public boolean isEmpty() {
+		return (theTopIndex == -1);
+	}
+
+	public void push(int aValue) {
+		if (size() == theData.length) {
+			theData = Arrays.copyOf(theData, 2 * theData.length);
+		}
+		theTopIndex = theTopIndex + 1;
+		theData[theTopIndex] = aValue;
+	}
+
+	/**
+	 * Returns, but does not remove, the value at the top of the stack.
+	 * @throws IllegalStateException if the stack is empty
+	 */
+	public int top() throws IllegalStateException {
+		if (isEmpty()) {
+			throw new IllegalStateException("Stack is empty");
+		} else {
+			return theData[theTopIndex];
+		}
+	}
+
+	/**
+	 * Removes and returns the value at the top of the stack.
+	 * @throws IllegalStateException if the stack is empty
+	 */
+	public int pop() throws IllegalStateException {
+		if (isEmpty()) {
+			throw new IllegalStateException("Stack is empty");
+		} else {
+			int result = theData[theTopIndex];
+			theTopIndex = theTopIndex - 1;
+			if (theTopIndex < theMarkFloor - 1)
+				dropBrokenMarks();
+			return result;
+		}
+	}
+
+	/**
+	 * Takes a mark at the current depth of the stack. Elements pushed after it
+	 * can later be discarded together with rollbackTo(mark), or kept with
+	 * commit(mark). Marks nest: only the innermost outstanding mark, the one
+	 * taken last, may be rolled back or committed, and each only once. Popping
+	 * below the depth of a mark breaks it, and it can no longer be used.
+	 * 
+	 * @return the mark, a token that is not the depth itself
+	 */
+	public int mark() {
+		if (theMarkIds == null) {
+			theMarkIds = new int[4];
+			theMarkDepths = new int[4];
+		} else if (theMarkCount == theMarkIds.length) {
+			theMarkIds = Arrays.copyOf(theMarkIds, 2 * theMarkCount);
+			theMarkDepths = Arrays.copyOf(theMarkDepths, 2 * theMarkCount);
+		}
+		theMarkIds[theMarkCount] = theNextMarkId;
+		theMarkDepths[theMarkCount++] = size();
+		theMarkFloor = size();
+		return theNextMarkId++;
+	}
+
+	/**
+	 * Discards every element pushed since the mark was taken. This is an index
+	 * reset, not a sequence of pops.
+	 * 
+	 * @throws IllegalArgumentException if the mark is not the innermost
+	 *                                  outstanding one
+	 */
+	public void rollbackTo(int aMark) throws IllegalArgumentException {
+		int depth = removeMark(aMark);
+		theTopIndex = depth - 1; // int slots hold no references to clear
+	}
+
+	/**
+	 * Keeps the elements pushed since the mark was taken; the mark cannot be used
+	 * afterwards.
+	 * 
+	 * @throws IllegalArgumentException if the mark is not the innermost
+	 *                                  outstanding one
+	 */
+	public void commit(int aMark) throws IllegalArgumentException {
+		removeMark(aMark);
+	}
+
+	/** Removes the innermost mark, which must be aMark, and returns its depth. */
+	private int removeMark(int aMark) throws IllegalArgumentException {
+		if (theMarkCount == 0 || theMarkIds[theMarkCount - 1] != aMark)
+			throw new IllegalArgumentException("Not the innermost outstanding mark: " + aMark);
+		int depth = theMarkDepths[--theMarkCount];
+		theMarkFloor = (theMarkCount == 0) ? 0 : theMarkDepths[theMarkCount - 1];
+		return depth;
+	}
+
+	/** Forgets the marks whose depth is above the current size. */
+	private void dropBrokenMarks() {
+		while (theMarkCount > 0 && theMarkDepths[theMarkCount - 1] > size())
+			theMarkCount--;
+		theMarkFloor = (theMarkCount == 0) ? 0 : theMarkDepths[theMarkCount - 1];
+	}
+
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		for (int j = theTopIndex; j >= 0; j--) {
+			tmpStringBuilder.append(theData[j]);
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
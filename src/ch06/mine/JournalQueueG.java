@@ -0,0 +1,434 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Realization of a FIFO queue that survives a restart of the process. Elements
+ * are serialized and appended to memory-mapped segment files in a directory;
+ * writing a record is a memory copy, not a system call. The position of the
+ * consumer is kept in a separate small mapped file. A segment whose records
+ * have all been dequeued is deleted, and a new segment is started when a
+ * record does not fit in the current one.
+ * <p>
+ * Every record is stored as its length, a CRC32 of its bytes and the bytes
+ * themselves. When the queue is reopened the last segment is scanned for the
+ * last record whose checksum is valid, and anything after it (a record torn by
+ * a crash) is discarded. A record with a bad checksum anywhere else is not
+ * skipped: it is reported as corruption with an IOException (wrapped in an
+ * UncheckedIOException outside the constructor). Each record's checksum is
+ * verified once, and the verified bytes are the ones deserialized. If the
+ * saved consumer position itself is damaged,
+ * consumption restarts at the oldest remaining segment, so elements may be
+ * delivered twice but are never lost.
+ * <p>
+ * Data reaches the operating system as soon as it is written, so it survives a
+ * crash of the process. To survive a crash of the machine the mapped pages must
+ * also be forced to disk: call force() explicitly, or give a force interval to
+ * the constructor to force after every so many operations. The queue is not
+ * safe for use by several threads at once. Null elements are not permitted.
+ *
+ * @see SerializerG
+ */
+public class JournalQueueG<E> implements QueueIntfG<E>, Closeable {
+
+	public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	private static final String SEGMENT_SUFFIX = ".seg";
+
+	private static final String OFFSET_FILE = "consumer.offset";
+
+	private static final int HEADER = 8; // record length and checksum
+
+	private static final int ROLL = -1; // length value marking the end of a segment
+
+	// results of nextRecord other than the position following a valid record
+	private static final int EMPTY = 0; // nothing written there
+
+	private static final int END = -1; // the segment ends there
+
+	private static final int CORRUPT = -2; // a record with a bad length or checksum
+
+	private static final int OFFSET_MAGIC = 0x4A51_0FF5;
+
+	private final Path theDirectory;
+
+	private final SerializerG<E> theSerializer;
+
+	private final int theSegmentSize;
+
+	private final int theForceInterval; // 0 means force only on request
+
+	private int theUnforced = 0; // operations since the last force
+
+	private long theWriteSegment;
+
+	private MappedByteBuffer theWriteBuffer;
+
+	private int theWritePosition;
+
+	private long theReadSegment;
+
+	private MappedByteBuffer theReadBuffer;
+
+	private int theReadPosition;
+
+	private final MappedByteBuffer theOffsetBuffer;
+
+	private long theSize = 0;
+
+	private final CRC32 theCrc = new CRC32();
+
+	// the last record verified by nextRecord, reused by readRecord
+	private MappedByteBuffer theCheckedBuffer = null;
+
+	private int theCheckedPosition = -1;
+
+	private byte[] theCheckedBytes = null;
+
+	// constructors
+	public JournalQueueG(Path aDirectory, SerializerG<E> aSerializer) throws IOException {
+		this(aDirectory, aSerializer, DEFAULT_SEGMENT_SIZE, 0);
+	}
+
+	/**
+	 * Opens the queue stored in the given directory, creating it if necessary, and
+	 * recovers its contents.
+	 * 
+	 * @param aDirectory     directory holding the segment files
+	 * @param aSerializer    converts elements to and from bytes
+	 * @param aSegmentSize   size in bytes of every segment file
+	 * @param aForceInterval number of operations after which the files are
+	 *                       forced to disk, or 0 to force only in force()
+	 */
+	public JournalQueueG(Path aDirectory, SerializerG<E> aSerializer, int aSegmentSize, int aForceInterval)
+			throws IOException {
+		if (aSegmentSize < 2 * HEADER)
+			throw new IllegalArgumentException("Segment size too small: " + aSegmentSize);
+		if (aForceInterval < 0)
+			throw new IllegalArgumentException("Force interval must not be negative: " + aForceInterval);
+		theDirectory = aDirectory;
+		theSerializer = aSerializer;
+		theSegmentSize = aSegmentSize;
+		theForceInterval = aForceInterval;
+		Files.createDirectories(aDirectory);
+		theOffsetBuffer = map(aDirectory.resolve(OFFSET_FILE), 16);
+		recover();
+	}
+
+	/** Rebuilds the read and write positions from the files on disk. */
+	private void recover() throws IOException {
+		List<Long> segments = listSegments();
+		if (segments.isEmpty())
+			segments.add(0L);
+
+		// consumer position, falling back to the oldest segment if it is damaged
+		long savedSegment = theOffsetBuffer.getLong(0);
+		int savedPosition = theOffsetBuffer.getInt(8);
+		if (theOffsetBuffer.getInt(12) == offsetCheck(savedSegment, savedPosition)
+				&& segments.contains(savedSegment)) {
+			theReadSegment = savedSegment;
+			theReadPosition = savedPosition;
+		} else {
+			theReadSegment = segments.get(0);
+			theReadPosition = 0;
+		}
+		for (long segment : segments) // consumed before the crash but not yet deleted
+			if (segment < theReadSegment)
+				Files.deleteIfExists(segmentPath(segment));
+
+		// producer position: just past the last valid record of the last segment
+		theWriteSegment = segments.get(segments.size() - 1);
+		theWriteBuffer = map(segmentPath(theWriteSegment), theSegmentSize);
+		theWritePosition = 0;
+		int next;
+		while ((next = nextRecord(theWriteBuffer, theWritePosition)) > 0)
+			theWritePosition = next;
+		if (next != END) { // discard a torn record so it cannot resurface later
+			for (int j = theWritePosition; j < theSegmentSize; j++)
+				theWriteBuffer.put(j, (byte) 0);
+		} else { // the segment was closed but its successor was never written
+			theWriteSegment++;
+			theWriteBuffer = map(segmentPath(theWriteSegment), theSegmentSize);
+			theWritePosition = 0;
+		}
+
+		theReadBuffer = (theReadSegment == theWriteSegment) ? theWriteBuffer
+				: map(segmentPath(theReadSegment), theSegmentSize);
+
+		// count the records still to be consumed
+		long segment = theReadSegment;
+		MappedByteBuffer buffer = theReadBuffer;
+		int position = theReadPosition;
+		while (true) {
+			next = nextRecord(buffer, position);
+			if (next > 0) {
+				theSize++;
+				position = next;
+			} else if (next == CORRUPT && segment < theWriteSegment) {
+				throw corruption(segment, position);
+			} else if (segment < theWriteSegment) { // ended (or never ended, if written before a crash)
+				segment++;
+				buffer = (segment == theWriteSegment) ? theWriteBuffer : map(segmentPath(segment), theSegmentSize);
+				position = 0;
+			} else {
+				break;
+			}
+		}
+		saveReadPosition();
+	}
+
+	/**
+	 * Returns the position following a valid record at aPosition, or EMPTY, END
+	 * or CORRUPT. The bytes of a valid record are kept for readRecord, so that a
+	 * record is verified only once however often it is looked at.
+	 */
+	private int nextRecord(MappedByteBuffer aBuffer, int aPosition) {
+		if (aBuffer == theCheckedBuffer && aPosition == theCheckedPosition)
+			return aPosition + HEADER + theCheckedBytes.length;
+		if (aPosition + HEADER > theSegmentSize)
+			return END;
+		int length = aBuffer.getInt(aPosition);
+		if (length == ROLL)
+			return END;
+		if (length == 0)
+			return EMPTY;
+		if (length < 0 || length > theSegmentSize - aPosition - HEADER)
+			return CORRUPT;
+		byte[] bytes = new byte[length];
+		aBuffer.get(aPosition + HEADER, bytes);
+		if (checksum(bytes) != aBuffer.getInt(aPosition + 4))
+			return CORRUPT;
+		theCheckedBuffer = aBuffer;
+		theCheckedPosition = aPosition;
+		theCheckedBytes = bytes;
+		return aPosition + HEADER + length;
+	}
+
+	private IOException corruption(long aSegment, int aPosition) {
+		return new IOException("Corrupt record in " + segmentPath(aSegment) + " at position " + aPosition);
+	}
+
+	@Override
+	public int size() {
+		return (int) Math.min(theSize, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	@Override
+	public void enqueue(E aElement) {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+		byte[] bytes = theSerializer.serialize(aElement);
+		if (bytes.length == 0 || HEADER + bytes.length > theSegmentSize)
+			throw new IllegalArgumentException("Cannot store a record of " + bytes.length + " bytes");
+		try {
+			if (theWritePosition + HEADER + bytes.length > theSegmentSize)
+				rollWriteSegment();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		theWriteBuffer.put(theWritePosition + HEADER, bytes);
+		theWriteBuffer.putInt(theWritePosition + 4, checksum(bytes));
+		theWriteBuffer.putInt(theWritePosition, bytes.length); // length last: the record is now complete
+		theWritePosition += HEADER + bytes.length;
+		theSize++;
+		countOperation();
+	}
+
+	/**
+	 * Closes the current write segment and starts the next one. The end marker is
+	 * forced to disk before the next segment file is created, so a segment that
+	 * has a successor on disk is always properly ended.
+	 */
+	private void rollWriteSegment() throws IOException {
+		if (theWritePosition + 4 <= theSegmentSize)
+			theWriteBuffer.putInt(theWritePosition, ROLL);
+		theWriteBuffer.force(); // once per segment, so a full segment is always on disk
+		theWriteBuffer = map(segmentPath(theWriteSegment + 1), theSegmentSize);
+		theWriteSegment++;
+		theWritePosition = 0;
+	}
+
+	@Override
+	public E first() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			skipEndedReadSegments();
+			return readRecord();
+		}
+	}
+
+	@Override
+	public E dequeue() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			skipEndedReadSegments();
+			E result = readRecord();
+			theReadPosition += HEADER + theCheckedBytes.length;
+			theSize--;
+			skipEndedReadSegments(); // delete a fully consumed segment right away
+			saveReadPosition();
+			countOperation();
+			return result;
+		}
+	}
+
+	/** Deserializes the record at the read position, verifying it first. */
+	private E readRecord() {
+		if (nextRecord(theReadBuffer, theReadPosition) <= 0)
+			throw new UncheckedIOException(corruption(theReadSegment, theReadPosition));
+		return theSerializer.deserialize(theCheckedBytes);
+	}
+
+	/**
+	 * Moves the consumer past segments it has finished, deleting them. A segment
+	 * with a successor and nothing written at the read position is finished as
+	 * well, as if it had been ended; a corrupt record there is not skipped but
+	 * left for readRecord to report.
+	 */
+	private void skipEndedReadSegments() {
+		try {
+			while (theReadSegment < theWriteSegment) {
+				int next = nextRecord(theReadBuffer, theReadPosition);
+				if (next > 0 || next == CORRUPT)
+					break;
+				Files.deleteIfExists(segmentPath(theReadSegment));
+				theReadSegment++;
+				theReadBuffer = (theReadSegment == theWriteSegment) ? theWriteBuffer
+						: map(segmentPath(theReadSegment), theSegmentSize);
+				theReadPosition = 0;
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void saveReadPosition() {
+		theOffsetBuffer.putLong(0, theReadSegment);
+		theOffsetBuffer.putInt(8, theReadPosition);
+		theOffsetBuffer.putInt(12, offsetCheck(theReadSegment, theReadPosition));
+	}
+
+	private void countOperation() {
+		if (theForceInterval > 0 && ++theUnforced >= theForceInterval)
+			force();
+	}
+
+	/** Forces all queued records and the consumer position to disk. */
+	public void force() {
+		theWriteBuffer.force();
+		theOffsetBuffer.force();
+		theUnforced = 0;
+	}
+
+	/**
+	 * Forces the queue to disk. The mappings themselves are released by the
+	 * garbage collector; the queue must not be used after it has been closed.
+	 */
+	@Override
+	public void close() {
+		force();
+	}
+
+	private List<Long> listSegments() throws IOException {
+		List<Long> segments = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(theDirectory, "*" + SEGMENT_SUFFIX)) {
+			for (Path path : stream) {
+				String name = path.getFileName().toString();
+				segments.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+			}
+		}
+		Collections.sort(segments);
+		return segments;
+	}
+
+	private Path segmentPath(long aSegment) {
+		return theDirectory.resolve(String.format("%020d%s", aSegment, SEGMENT_SUFFIX));
+	}
+
+	private static MappedByteBuffer map(Path aPath, int aSize) throws IOException {
+		try (FileChannel channel = FileChannel.open(aPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, aSize); // stays valid after close
+		}
+	}
+
+	private int checksum(byte[] aBytes) {
+		theCrc.reset();
+		theCrc.update(aBytes);
+		return (int) theCrc.getValue();
+	}
+
+	private static int offsetCheck(long aSegment, int aPosition) {
+		return Long.hashCode(aSegment * 31 + aPosition) ^ OFFSET_MAGIC;
+	}
+
+	public String toString() {
+		return "JournalQueueG(" + theDirectory + ", size=" + theSize + ")";
+	}
+
+	/** Demonstrates that queued elements survive reopening the queue. */
+	public static void main(String[] args) throws IOException {
+		SerializerG<String> strings = new SerializerG<String>() {
+			public byte[] serialize(String aElement) {
+				return aElement.getBytes(StandardCharsets.UTF_8);
+			}
+
+			public String deserialize(byte[] aBytes) {
+				return new String(aBytes, StandardCharsets.UTF_8);
+			}
+		};
+		Path directory = Files.createTempDirectory("journal");
+		try (JournalQueueG<String> Q = new JournalQueueG<>(directory, strings, 64, 0)) {
+			for (String s : new String[] { "Alice", "Bob", "Cindy", "Doug", "Ed", "Fred" })
+				Q.enqueue(s); // small segments, so this rolls several times
+			System.out.println(Q.dequeue()); // outputs Alice
+		}
+		try (JournalQueueG<String> Q = new JournalQueueG<>(directory, strings, 64, 0)) {
+			System.out.println(Q.size()); // outputs 5
+			while (!Q.isEmpty())
+				System.out.println(Q.dequeue()); // outputs Bob ... Fred
+		}
+	}
+}
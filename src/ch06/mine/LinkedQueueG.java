@@ -23,17 +23,18 @@
 package ch06.mine;
 
 /**
- * Realization of a FIFO queue as an adaptation of a SinglyLinkedList. All
+ * Realization of a FIFO queue as an adaptation of an UnrolledLinkedList,
+ * which stores elements in small arrays rather than one node per element. All
  * operations are performed in constant time.
  *
  * @author Michael T. Goodrich
  * @author Roberto Tamassia
  * @author Michael H. Goldwasser
- * @see SinglyLinkedListG
+ * @see UnrolledLinkedListG
  */
 public class LinkedQueueG<E> implements QueueIntfG<E> {
 
-	private SinglyLinkedListG<E> list = new SinglyLinkedListG<>();
+	private UnrolledLinkedListG<E> list = new UnrolledLinkedListG<>();
 
 	public LinkedQueueG() {
 	} // new queue relies on the initially empty list
@@ -23,17 +23,18 @@
 package ch06.mine;
 
 /**
- * Realization of a stack as an adaptation of a SinglyLinkedList. All operations
- * are performed in constant time.
+ * Realization of a stack as an adaptation of an UnrolledLinkedList, which
+ * stores elements in small arrays rather than one node per element. All
+ * operations are performed in constant time.
  *
  * @author Michael T. Goodrich
  * @author Roberto Tamassia
  * @author Michael H. Goldwasser
- * @see SinglyLinkedListG
+ * @see UnrolledLinkedListG
  */
 public class LinkedStackG<E> implements StackIntfG<E> {
 
-	private SinglyLinkedListG<E> list = new SinglyLinkedListG<>(); // an empty list
+	private UnrolledLinkedListG<E> list = new UnrolledLinkedListG<>(); // an empty list
 
 	public LinkedStackG() {
 	} 
@@ -1,35 +1,196 @@
-package ch06.mine;
-
-public class MyQueue implements QueueIntfG<E>{
-
-	@Override
-	public int size() {
-		// TODO Auto-generated method stub
-		return 0;
-	}
-
-	@Override
-	public boolean isEmpty() {
-		// TODO Auto-generated method stub
-		return false;
-	}
-
-	@Override
-	public void enqueue(E e) {
-		// TODO Auto-generated method stub
-		
-	}
-
-	@Override
-	public E first() {
-		// TODO Auto-generated method stub
-		return null;
-	}
-
-	@Override
-	public E dequeue() {
-		// TODO Auto-generated method stub
-		return null;
-	}
-
-}
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.Comparator;
+import java.util.function.BinaryOperator;
+
+/**
+ * Realization of a FIFO queue as two stacks, which in addition maintains the
+ * fold of all its elements under an associative operation (a monoid: min,
+ * max, sum, gcd, ...). New elements are pushed on the back stack; elements are
+ * popped from the front stack, which is refilled from the back stack, in
+ * reverse, whenever it runs empty. Every stack entry stores, next to its
+ * element, the fold of that element and all entries below it, so the fold of
+ * each stack is found at its top and aggregate() combines just two values.
+ * Each element is moved between the stacks at most once, so all operations run
+ * in amortized constant time, which makes this a sliding window whose
+ * aggregate never has to be recomputed from scratch.
+ * <p>
+ * The operation must be associative but need not be commutative: the
+ * aggregate is always folded in queue order, first element leftmost.
+ *
+ * @see StackIntfG
+ * @see GrowableArrayStackG
+ */
+public class MyQueue<E> implements QueueIntfG<E> {
+
+	/** A stack entry: an element and the fold of it with everything below it. */
+	private static class Entry<E> {
+
+		private final E theElement;
+
+		private final E theAggregate;
+
+		public Entry(E aElement, E aAggregate) {
+			theElement = aElement;
+			theAggregate = aAggregate;
+		}
+	}
+
+	private final BinaryOperator<E> theOperator;
+
+	private final GrowableArrayStackG<Entry<E>> theFront = new GrowableArrayStackG<>(); // top is the oldest
+
+	private final GrowableArrayStackG<Entry<E>> theBack = new GrowableArrayStackG<>(); // top is the newest
+
+	/**
+	 * Creates an empty queue.
+	 * 
+	 * @param aOperator associative operation used by aggregate()
+	 */
+	public MyQueue(BinaryOperator<E> aOperator) {
+		theOperator = aOperator;
+	}
+
+	/** Creates a queue whose aggregate is its smallest element. */
+	public static <E> MyQueue<E> minQueue(Comparator<? super E> aComparator) {
+		return new MyQueue<>((a, b) -> aComparator.compare(a, b) <= 0 ? a : b);
+	}
+
+	/** Creates a queue whose aggregate is its largest element. */
+	public static <E> MyQueue<E> maxQueue(Comparator<? super E> aComparator) {
+		return new MyQueue<>((a, b) -> aComparator.compare(a, b) >= 0 ? a : b);
+	}
+
+	@Override
+	public int size() {
+		return theFront.size() + theBack.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return theFront.isEmpty() && theBack.isEmpty();
+	}
+
+	@Override
+	public void enqueue(E aElement) {
+		Entry<E> top = theBack.top();
+		E aggregate = (top == null) ? aElement : theOperator.apply(top.theAggregate, aElement);
+		theBack.push(new Entry<>(aElement, aggregate));
+	}
+
+	@Override
+	public E first() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			refillFront();
+			return theFront.top().theElement;
+		}
+	}
+
+	@Override
+	public E dequeue() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			refillFront();
+			return theFront.pop().theElement;
+		}
+	}
+
+	/**
+	 * Returns the fold of all elements in queue order, e1 op e2 op ... op en.
+	 * 
+	 * @return the aggregate (or null if empty)
+	 */
+	public E aggregate() {
+		Entry<E> front = theFront.top();
+		Entry<E> back = theBack.top();
+		if (front == null)
+			return (back == null) ? null : back.theAggregate;
+		if (back == null)
+			return front.theAggregate;
+		return theOperator.apply(front.theAggregate, back.theAggregate);
+	}
+
+	/** Moves the back stack onto the front stack if the front stack is empty. */
+	private void refillFront() {
+		if (!theFront.isEmpty())
+			return;
+		while (!theBack.isEmpty()) {
+			E element = theBack.pop().theElement; // newest first
+			Entry<E> top = theFront.top();
+			E aggregate = (top == null) ? element : theOperator.apply(element, top.theAggregate);
+			theFront.push(new Entry<>(element, aggregate));
+		}
+	}
+
+	/**
+	 * Returns a string representation of the queue, first element first. This
+	 * method runs in O(n) time and is meant for debugging.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		boolean first = true;
+		for (int j = theFront.size() - 1; j >= 0; j--) { // front stack, top down
+			if (!first)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theFront.get(j).theElement);
+			first = false;
+		}
+		for (int j = 0; j < theBack.size(); j++) { // back stack, bottom up
+			if (!first)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theBack.get(j).theElement);
+			first = false;
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+
+	/** Demonstrates sliding-window aggregates over a window of three. */
+	public static void main(String[] args) {
+		long[] data = { 12, 18, 6, 9, 27, 15, 5 };
+		MyQueue<Long> sums = new MyQueue<>(Long::sum);
+		MyQueue<Long> maxima = maxQueue(Comparator.naturalOrder());
+		MyQueue<Long> gcds = new MyQueue<>(MyQueue::gcd);
+		for (long x : data) {
+			sums.enqueue(x);
+			maxima.enqueue(x);
+			gcds.enqueue(x);
+			if (sums.size() > 3) {
+				sums.dequeue();
+				maxima.dequeue();
+				gcds.dequeue();
+			}
+			System.out.println(sums + " sum=" + sums.aggregate() + " max=" + maxima.aggregate() + " gcd="
+					+ gcds.aggregate());
+		}
+	}
+
+	private static Long gcd(Long a, Long b) {
+		return (b == 0) ? a : gcd(b, a % b);
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Implementation of the queue ADT that stores its elements outside the Java
+ * heap, as fixed-width records in a direct ByteBuffer. The buffer is used as a
+ * circular array of records with the same front-index/size logic as
+ * ArrayQueueG; a RecordCodecG converts elements to records on enqueue and back
+ * on dequeue. Since queued elements are plain bytes, the garbage collector
+ * neither traces nor copies them, however many are waiting. All operations are
+ * performed in constant time. An exception is thrown if an enqueue operation
+ * is attempted when the queue is full.
+ * <p>
+ * The capacity times the record size must fit in an int (just under 2 GB).
+ *
+ * @see ArrayQueueG
+ * @see RecordCodecG
+ */
+public class OffHeapArrayQueueG<E> implements QueueIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private final ByteBuffer theBuffer;
+
+	private final RecordCodecG<E> theCodec;
+
+	private final int theRecordSize;
+
+	private final int theCapacity;
+
+	private int theFrontIndex = 0;
+
+	private int theSize = 0;
+
+	// constructors
+	public OffHeapArrayQueueG(RecordCodecG<E> aCodec) {
+		this(aCodec, DEFAULT_CAPACITY);
+	}
+
+	public OffHeapArrayQueueG(RecordCodecG<E> aCodec, int aCapacity) {
+		theRecordSize = aCodec.recordSize();
+		if (aCapacity < 1 || theRecordSize < 1 || (long) aCapacity * theRecordSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException(
+					"Illegal capacity " + aCapacity + " for records of " + theRecordSize + " bytes");
+		theCodec = aCodec;
+		theCapacity = aCapacity;
+		theBuffer = ByteBuffer.allocateDirect(aCapacity * theRecordSize).order(ByteOrder.nativeOrder());
+	}
+
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	public int capacity() {
+		return theCapacity;
+	}
+
+	/**
+	 * Inserts an element at the rear of the queue if there is room for it.
+	 * 
+	 * @param aElement the element to be inserted
+	 * @return true if the element was inserted, false if the queue is full
+	 */
+	public boolean offer(E aElement) {
+		if (theSize == theCapacity)
+			return false;
+		int available = (theFrontIndex + theSize) % theCapacity; // use modular arithmetic
+		theCodec.write(theBuffer, available * theRecordSize, aElement);
+		theSize++;
+		return true;
+	}
+
+	@Override
+	public void enqueue(E aElement) throws IllegalStateException {
+		if (!offer(aElement))
+			throw new IllegalStateException("Queue is full");
+	}
+
+	/** Decodes and returns, but does not remove, the first element of the queue. */
+	@Override
+	public E first() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theCodec.read(theBuffer, theFrontIndex * theRecordSize);
+		}
+	}
+
+	@Override
+	public E dequeue() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			E result = theCodec.read(theBuffer, theFrontIndex * theRecordSize);
+			theFrontIndex = (theFrontIndex + 1) % theCapacity; // no reference to clear
+			theSize--;
+			return result;
+		}
+	}
+
+	/**
+	 * Returns a string representation of the queue as a list of elements. Each
+	 * record is decoded, so this method runs in O(n) time and allocates.
+	 * 
+	 * @return textual representation of the queue.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		int frontIndex = theFrontIndex;
+		for (int j = 0; j < theSize; j++) {
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theCodec.read(theBuffer, frontIndex * theRecordSize));
+			frontIndex = (frontIndex + 1) % theCapacity;
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+
+	/** Demonstrates sample usage with a codec for Long elements. */
+	public static void main(String[] args) {
+		RecordCodecG<Long> longCodec = new RecordCodecG<Long>() {
+			public int recordSize() {
+				return Long.BYTES;
+			}
+
+			public void write(ByteBuffer aBuffer, int aOffset, Long aElement) {
+				aBuffer.putLong(aOffset, aElement);
+			}
+
+			public Long read(ByteBuffer aBuffer, int aOffset) {
+				return aBuffer.getLong(aOffset);
+			}
+		};
+		OffHeapArrayQueueG<Long> Q = new OffHeapArrayQueueG<>(longCodec, 3);
+		Q.enqueue(5L); // contents: (5)
+		Q.enqueue(3L); // contents: (5, 3)
+		System.out.println(Q.dequeue()); // contents: (3) outputs 5
+		Q.enqueue(7L); // contents: (3, 7)
+		Q.enqueue(9L); // contents: (3, 7, 9) wraps around the buffer
+		System.out.println(Q.offer(1L)); // contents: (3, 7, 9) outputs false
+		System.out.println(Q); // outputs (3, 7, 9)
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * Interface for a priority queue: a collection of values, each stored with a
+ * key, from which the value with the smallest key is removed first. To keep
+ * implementations free of per-entry objects, keys and values are passed and
+ * returned separately rather than as Entry objects.
+ *
+ * @see ArrayHeapPriorityQueueG
+ */
+public interface PriorityQueueIntfG<K, V> {
+  /**
+   * Returns the number of entries in the priority queue.
+   * @return number of entries in the priority queue
+   */
+  int size();
+
+  /**
+   * Tests whether the priority queue is empty.
+   * @return true if the priority queue is empty, false otherwise
+   */
+  boolean isEmpty();
+
+  /**
+   * Inserts a value with the given key.
+   * @param key    the key of the new entry
+   * @param value  the value of the new entry
+   * @throws IllegalArgumentException if the key cannot be compared
+   */
+  void insert(K key, V value) throws IllegalArgumentException;
+
+  /**
+   * Returns, but does not remove, the smallest key.
+   * @return the smallest key (or null if empty)
+   */
+  K minKey();
+
+  /**
+   * Returns, but does not remove, the value with the smallest key.
+   * @return the value with the smallest key (or null if empty)
+   */
+  V min();
+
+  /**
+   * Removes and returns the value with the smallest key.
+   * @return the value removed (or null if empty)
+   */
+  V removeMin();
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes the elements of a queue to a java.util.concurrent.Flow subscriber,
+ * honouring its demand. Producers add elements with offer() or submit(); the
+ * elements wait in the wrapped queue until the subscriber has requested them,
+ * and are then delivered in batches of up to the outstanding demand, so a slow
+ * subscriber holds elements back in the queue instead of being flooded. The
+ * queue is bounded by a capacity: offer() returns false and submit() waits
+ * while it is full, so backpressure reaches the producers as well.
+ * <p>
+ * close() completes the subscriber once the queue has been drained, and
+ * closeExceptionally() signals an error at once. A queue is consumed, not
+ * copied, so there is at most one subscriber at a time; a new subscriber is
+ * accepted once the previous one has cancelled or been terminated. Elements
+ * taken from the queue for a batch but not delivered, because the subscriber
+ * cancelled or failed mid-batch, are put back in front of the queue for the
+ * next subscriber. Signals to the subscriber run on the given executor, one at
+ * a time.
+ *
+ * @see QueueIntfG
+ */
+public class QueuePublisherG<E> implements Flow.Publisher<E>, AutoCloseable {
+
+	public static final int DEFAULT_BATCH_SIZE = 64;
+
+	private final QueueIntfG<E> theQueue;
+
+	private final int theCapacity;
+
+	private final Executor theExecutor;
+
+	private final ReentrantLock theLock = new ReentrantLock();
+
+	private final Condition theNotFull = theLock.newCondition();
+
+	private volatile boolean theClosed = false;
+
+	private volatile Throwable theFailure = null;
+
+	private volatile QueueSubscription theSubscription = null;
+
+	private final int theBatchSize;
+
+	private final DequeIntfG<E> theReturned = new ArrayDequeG<>(); // undelivered, ahead of theQueue
+
+	private Object theHolder = null; // subscription holding a batch; guarded by theLock
+
+	// constructors
+	/** Publishes from an ArrayQueueG of the given capacity, signalling on the common pool. */
+	public QueuePublisherG(int aCapacity) {
+		this(new ArrayQueueG<>(aCapacity), aCapacity, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+	}
+
+	/**
+	 * @param aQueue     the queue to publish from, which must be empty and is
+	 *                   only used under this publisher's lock afterwards
+	 * @param aCapacity  the number of elements after which producers are held
+	 *                   back; must not exceed what aQueue itself can hold
+	 * @param aExecutor  runs the deliveries to the subscriber
+	 * @param aBatchSize the largest number of elements taken from the queue at
+	 *                   once
+	 */
+	public QueuePublisherG(QueueIntfG<E> aQueue, int aCapacity, Executor aExecutor, int aBatchSize) {
+		if (aCapacity < 1 || aBatchSize < 1)
+			throw new IllegalArgumentException("Capacity and batch size must be positive");
+		theQueue = aQueue;
+		theCapacity = aCapacity;
+		theExecutor = aExecutor;
+		theBatchSize = aBatchSize;
+	}
+
+	/** Returns the number of elements waiting to be delivered. */
+	public int size() {
+		theLock.lock();
+		try {
+			return theReturned.size() + theQueue.size();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds an element for delivery if there is room for it.
+	 * 
+	 * @return true if the element was added, false if the queue is full
+	 * @throws IllegalStateException if the publisher has been closed
+	 */
+	public boolean offer(E aElement) throws IllegalStateException {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+		theLock.lock();
+		try {
+			checkOpen();
+			if (theReturned.size() + theQueue.size() >= theCapacity)
+				return false;
+			theQueue.enqueue(aElement);
+		} finally {
+			theLock.unlock();
+		}
+		signal();
+		return true;
+	}
+
+	/**
+	 * Adds an element for delivery, waiting while the queue is full.
+	 * 
+	 * @throws IllegalStateException if the publisher has been closed
+	 * @throws InterruptedException  if interrupted while waiting
+	 */
+	public void submit(E aElement) throws IllegalStateException, InterruptedException {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+		theLock.lockInterruptibly();
+		try {
+			checkOpen();
+			while (theReturned.size() + theQueue.size() >= theCapacity) {
+				theNotFull.await(); // close() also signals
+				checkOpen();
+			}
+			theQueue.enqueue(aElement);
+		} finally {
+			theLock.unlock();
+		}
+		signal();
+	}
+
+	private void checkOpen() throws IllegalStateException {
+		if (theClosed)
+			throw new IllegalStateException("Publisher is closed");
+	}
+
+	/** Completes the subscriber once all queued elements have been delivered. */
+	@Override
+	public void close() {
+		theClosed = true;
+		wakeSubmitters();
+		signal();
+	}
+
+	/** Signals the error to the subscriber at once; queued elements are dropped. */
+	public void closeExceptionally(Throwable aFailure) {
+		if (aFailure == null)
+			throw new NullPointerException("Null failure");
+		theFailure = aFailure;
+		theClosed = true;
+		wakeSubmitters();
+		signal();
+	}
+
+	private void wakeSubmitters() {
+		theLock.lock();
+		try {
+			theNotFull.signalAll();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super E> aSubscriber) {
+		if (aSubscriber == null)
+			throw new NullPointerException("Null subscriber");
+		QueueSubscription subscription = new QueueSubscription(aSubscriber);
+		boolean accepted;
+		theLock.lock();
+		try {
+			QueueSubscription current = theSubscription;
+			accepted = (current == null || current.theTerminated);
+			if (accepted)
+				theSubscription = subscription;
+		} finally {
+			theLock.unlock();
+		}
+		if (!accepted) {
+			subscription.theTerminated = true;
+			aSubscriber.onSubscribe(subscription);
+			aSubscriber.onError(new IllegalStateException("Publisher already has a subscriber"));
+			return;
+		}
+		aSubscriber.onSubscribe(subscription);
+		subscription.theStarted = true; // only now may other signals follow
+		subscription.drain();
+	}
+
+	private boolean isQueueEmpty() {
+		return theReturned.isEmpty() && theQueue.isEmpty();
+	}
+
+	private void signal() {
+		QueueSubscription subscription = theSubscription;
+		if (subscription != null)
+			subscription.drain();
+	}
+
+	// ---------------- nested QueueSubscription class ----------------
+	/**
+	 * The link to one subscriber. Any thread may ask for a drain; a
+	 * work-in-progress counter makes sure only one drain loop runs at a time and
+	 * that requests arriving meanwhile are picked up by it.
+	 */
+	private final class QueueSubscription implements Flow.Subscription {
+
+		private final Flow.Subscriber<? super E> theSubscriber;
+
+		private final AtomicLong theDemand = new AtomicLong();
+
+		private final AtomicInteger theWorkInProgress = new AtomicInteger();
+
+		private volatile boolean theStarted = false;
+
+		private volatile boolean theTerminated = false; // cancelled, completed or failed
+
+		private volatile Throwable theRequestFailure = null; // an invalid request(n)
+
+		private final Object[] theBatch = new Object[theBatchSize]; // used only by the running drain loop
+
+		private QueueSubscription(Flow.Subscriber<? super E> aSubscriber) {
+			theSubscriber = aSubscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				theRequestFailure = new IllegalArgumentException("Non-positive request: " + n); // rule 3.9
+			} else {
+				theDemand.accumulateAndGet(n, (a, b) -> (a + b < 0) ? Long.MAX_VALUE : a + b); // saturating
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			theTerminated = true;
+		}
+
+		void drain() {
+			if (theWorkInProgress.getAndIncrement() == 0)
+				theExecutor.execute(this::drainLoop);
+		}
+
+		private void drainLoop() {
+			int missed = 1;
+			do {
+				deliver();
+				missed = theWorkInProgress.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		@SuppressWarnings({ "unchecked" })
+		private void deliver() {
+			while (theStarted && !theTerminated) {
+				Throwable failure = (theRequestFailure != null) ? theRequestFailure : theFailure;
+				if (failure != null) {
+					terminate();
+					theSubscriber.onError(failure);
+					return;
+				}
+				boolean closed = theClosed; // read before looking at the queue
+				long demand = theDemand.get();
+				int count = 0;
+				boolean empty;
+				theLock.lock();
+				try {
+					if (theHolder != null || theTerminated)
+						return; // an earlier subscription is putting back its batch and will signal
+					while (count < demand && count < theBatch.length && !isQueueEmpty())
+						theBatch[count++] = theReturned.isEmpty() ? theQueue.dequeue() : theReturned.removeFirst();
+					if (count > 0) {
+						theHolder = this;
+						theNotFull.signalAll();
+					}
+					empty = isQueueEmpty();
+				} finally {
+					theLock.unlock();
+				}
+				int delivered = 0;
+				while (delivered < count && !theTerminated) {
+					E element = (E) theBatch[delivered];
+					theBatch[delivered++] = null;
+					try {
+						theSubscriber.onNext(element);
+					} catch (Throwable e) {
+						terminate(); // a failing subscriber is treated as cancelled
+					}
+				}
+				if (count > 0)
+					release(delivered, count);
+				if (delivered > 0 && demand != Long.MAX_VALUE)
+					theDemand.addAndGet(-delivered);
+				if (count == 0) {
+					if (closed && empty) {
+						terminate();
+						theSubscriber.onComplete();
+					}
+					return; // wait for more demand or more elements
+				}
+			}
+		}
+
+		/**
+		 * Puts the undelivered elements theBatch[aFrom..aTo) back in front of the
+		 * queue, in their order, and lets the next subscriber go on.
+		 */
+		@SuppressWarnings({ "unchecked" })
+		private void release(int aFrom, int aTo) {
+			theLock.lock();
+			try {
+				for (int j = aTo - 1; j >= aFrom; j--) {
+					theReturned.addFirst((E) theBatch[j]);
+					theBatch[j] = null;
+				}
+				theHolder = null;
+			} finally {
+				theLock.unlock();
+			}
+			if (theSubscription != this)
+				signal(); // a later subscriber may have been waiting for the batch
+		}
+
+		private void terminate() {
+			theTerminated = true;
+		}
+	} // ----------- end of nested QueueSubscription class -----------
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements to and from fixed-width binary records, so that they can
+ * be stored outside the Java heap.
+ *
+ * @see OffHeapArrayQueueG
+ */
+public interface RecordCodecG<E> {
+
+  /**
+   * Returns the number of bytes every record occupies.
+   * @return record width in bytes
+   */
+  int recordSize();
+
+  /**
+   * Writes an element as a record starting at the given offset. Exactly
+   * recordSize() bytes from aOffset on may be written.
+   * @param aBuffer   buffer holding the records
+   * @param aOffset   absolute offset of the record in the buffer
+   * @param aElement  the element to be written
+   */
+  void write(ByteBuffer aBuffer, int aOffset, E aElement);
+
+  /**
+   * Reads the record starting at the given offset back into an element.
+   * @param aBuffer   buffer holding the records
+   * @param aOffset   absolute offset of the record in the buffer
+   * @return the decoded element
+   */
+  E read(ByteBuffer aBuffer, int aOffset);
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.function.Consumer;
+
+/**
+ * Implementation of the stack ADT using a fixed-length circular array in which
+ * a push onto a full stack silently evicts the oldest element (the one at the
+ * bottom) instead of failing. This suits histories such as undo stacks: only
+ * the most recent entries are kept and memory use is fixed. An optional
+ * callback receives every evicted element, so that resources held by it can be
+ * released. All operations are performed in constant time and none of them
+ * allocates.
+ *
+ * @see ArrayStackG
+ */
+public class RingArrayStackG<E> implements StackIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private final E[] theData;
+
+	private final Consumer<? super E> theEvictionListener; // may be null
+
+	private int theBottomIndex = 0; // index of the oldest element
+
+	private int theSize = 0;
+
+	public RingArrayStackG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public RingArrayStackG(int aCapacity) {
+		this(aCapacity, null);
+	}
+
+	/**
+	 * @param aCapacity         number of elements kept
+	 * @param aEvictionListener receives the elements pushed out of a full stack,
+	 *                          or null
+	 */
+	@SuppressWarnings({ "unchecked" })
+	public RingArrayStackG(int aCapacity, Consumer<? super E> aEvictionListener) {
+		if (aCapacity < 1)
+			throw new IllegalArgumentException("Capacity must be positive: " + aCapacity);
+		theData = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		theEvictionListener = aEvictionListener;
+	}
+
+	@Override
+	public int size() {
+		return theSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	public int capacity() {
+		return theData.length;
+	}
+
+	/** Pushes an element, evicting the oldest element if the stack is full. */
+	@Override
+	public void push(E aElement) {
+		if (theSize == theData.length) {
+			E evicted = theData[theBottomIndex];
+			theData[theBottomIndex] = aElement; // the new top takes the oldest slot
+			theBottomIndex = (theBottomIndex + 1) % theData.length;
+			if (theEvictionListener != null)
+				theEvictionListener.accept(evicted);
+		} else {
+			theData[(theBottomIndex + theSize) % theData.length] = aElement;
+			theSize++;
+		}
+	}
+
+	@Override
+	public E top() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theData[(theBottomIndex + theSize - 1) % theData.length];
+		}
+	}
+
+	@Override
+	public E pop() {
+		if (isEmpty()) {
+			return null;
+		} else {
+			int topIndex = (theBottomIndex + theSize - 1) % theData.length;
+			E result = theData[topIndex];
+			theData[topIndex] = null; // dereference to help garbage collection
+			theSize--;
+			return result;
+		}
+	}
+
+	/** Removes all elements, without passing them to the eviction callback. */
+	public void clear() {
+		for (int j = 0; j < theSize; j++)
+			theData[(theBottomIndex + j) % theData.length] = null;
+		theBottomIndex = 0;
+		theSize = 0;
+	}
+
+	/** Returns the elements top first, like ArrayStackG.toString(). */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		for (int j = theSize - 1; j >= 0; j--) {
+			tmpStringBuilder.append(theData[(theBottomIndex + j) % theData.length]);
+			if (j > 0)
+				tmpStringBuilder.append(", ");
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+
+	/** Demonstrates sample usage as an undo history of three entries. */
+	public static void main(String[] args) {
+		StackIntfG<String> undo = new RingArrayStackG<>(3, e -> System.out.println("evicted " + e));
+		undo.push("type a"); // contents: (type a)
+		undo.push("type b"); // contents: (type b, type a)
+		undo.push("delete"); // contents: (delete, type b, type a)
+		undo.push("paste"); // outputs evicted type a; contents: (paste, delete, type b)
+		System.out.println(undo); // outputs (paste, delete, type b)
+		System.out.println(undo.pop()); // outputs paste
+		System.out.println(undo.top()); // outputs delete
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * A preallocated ring of mutable events through which producers multicast to
+ * several consumers (in the style of the LMAX Disruptor). The ring is filled
+ * with event objects once, at construction; after that nothing is allocated or
+ * copied per event. A producer claims the next sequence with next(), fills in
+ * the event returned by get(sequence) and makes it visible with
+ * publish(sequence). Every consumer, typically an EventProcessorG, keeps its
+ * own SequenceG and reads events in place through a SequenceBarrierG; a
+ * barrier created with other consumers' sequences lets one consumer run only
+ * behind those it depends on (for example business logic behind a journaler
+ * and a replicator). Producers never overwrite an event until every consumer
+ * registered with addGatingSequences has passed it.
+ * <p>
+ * Any number of producer threads may claim sequences, which is done with a
+ * CAS on the cursor; since sequences may be published out of order, each slot
+ * records the lap in which it was last published.
+ *
+ * @see SequenceBarrierG
+ * @see EventProcessorG
+ * @see WaitStrategyG
+ */
+public class RingBufferG<E> {
+
+	private final Object[] theEvents;
+
+	private final int theMask;
+
+	private final int theIndexShift; // log2 of the size: sequence >>> shift is the lap
+
+	private final AtomicIntegerArray theAvailable; // lap in which each slot was last published
+
+	private final SequenceG theCursor = new SequenceG(); // highest claimed sequence
+
+	private final SequenceG theGatingCache = new SequenceG(); // last known minimum of the gates
+
+	private volatile SequenceG[] theGatingSequences = new SequenceG[0];
+
+	private final WaitStrategyG theWaitStrategy;
+
+	/**
+	 * Creates a ring buffer and fills it with events.
+	 * 
+	 * @param aFactory      creates the events, once per slot
+	 * @param aSize         number of slots, rounded up to a power of two
+	 * @param aWaitStrategy how consumers wait for events
+	 */
+	public RingBufferG(Supplier<E> aFactory, int aSize, WaitStrategyG aWaitStrategy) {
+		if (aSize < 1 || aSize > (1 << 30))
+			throw new IllegalArgumentException("Illegal size: " + aSize);
+		int length = 1 << (32 - Integer.numberOfLeadingZeros(aSize - 1));
+		theEvents = new Object[length];
+		for (int j = 0; j < length; j++)
+			theEvents[j] = aFactory.get();
+		theMask = length - 1;
+		theIndexShift = Integer.numberOfTrailingZeros(length);
+		theAvailable = new AtomicIntegerArray(length);
+		for (int j = 0; j < length; j++)
+			theAvailable.set(j, -1); // no lap published yet
+		theWaitStrategy = aWaitStrategy;
+	}
+
+	public int getBufferSize() {
+		return theEvents.length;
+	}
+
+	/** Returns the event object for a sequence, to be filled in or read in place. */
+	@SuppressWarnings({ "unchecked" })
+	public E get(long aSequence) {
+		return (E) theEvents[(int) aSequence & theMask];
+	}
+
+	SequenceG cursor() {
+		return theCursor;
+	}
+
+	/**
+	 * Registers the sequences of the consumers that producers must not overtake;
+	 * normally those of the last consumers in each dependency chain.
+	 */
+	public synchronized void addGatingSequences(SequenceG... aSequences) {
+		SequenceG[] current = theGatingSequences;
+		SequenceG[] updated = new SequenceG[current.length + aSequences.length];
+		System.arraycopy(current, 0, updated, 0, current.length);
+		long cursor = theCursor.get();
+		for (int j = 0; j < aSequences.length; j++) {
+			aSequences[j].set(cursor); // start from the current position
+			updated[current.length + j] = aSequences[j];
+		}
+		theGatingSequences = updated;
+	}
+
+	/**
+	 * Creates a barrier for a consumer that must stay behind the given consumer
+	 * sequences; with none, the consumer only waits for producers.
+	 */
+	public SequenceBarrierG newBarrier(SequenceG... aDependents) {
+		return new SequenceBarrierG(this, theWaitStrategy, aDependents);
+	}
+
+	/**
+	 * Claims the next sequence, waiting while the ring is full.
+	 * 
+	 * @return the claimed sequence, which must be published
+	 */
+	public long next() {
+		while (true) {
+			long current = theCursor.get();
+			long next = current + 1;
+			if (!hasRoomFor(next)) {
+				LockSupport.parkNanos(1); // a consumer is a whole lap behind
+			} else if (theCursor.compareAndSet(current, next)) {
+				return next;
+			}
+		}
+	}
+
+	/**
+	 * Claims the next sequence if the ring is not full.
+	 * 
+	 * @return the claimed sequence, which must be published, or -1 if full
+	 */
+	public long tryNext() {
+		while (true) {
+			long current = theCursor.get();
+			long next = current + 1;
+			if (!hasRoomFor(next))
+				return -1;
+			if (theCursor.compareAndSet(current, next))
+				return next;
+		}
+	}
+
+	/** Tests whether every gating consumer has passed the slot aSequence would reuse. */
+	private boolean hasRoomFor(long aSequence) {
+		long wrapPoint = aSequence - theEvents.length;
+		if (wrapPoint <= theGatingCache.get())
+			return true;
+		long gate = SequenceG.minimum(theGatingSequences, aSequence - 1);
+		theGatingCache.set(gate);
+		return wrapPoint <= gate;
+	}
+
+	/** Makes the event of a claimed sequence visible to consumers. */
+	public void publish(long aSequence) {
+		theAvailable.lazySet((int) aSequence & theMask, (int) (aSequence >>> theIndexShift));
+		theWaitStrategy.signalAllWhenBlocking();
+	}
+
+	public boolean isPublished(long aSequence) {
+		return theAvailable.get((int) aSequence & theMask) == (int) (aSequence >>> theIndexShift);
+	}
+
+	/**
+	 * Returns the highest sequence from aLow up to aHigh such that it and all
+	 * before it are published, or aLow - 1 if aLow itself is not.
+	 */
+	long highestPublished(long aLow, long aHigh) {
+		for (long sequence = aLow; sequence <= aHigh; sequence++)
+			if (!isPublished(sequence))
+				return sequence - 1;
+		return aHigh;
+	}
+
+	public String toString() {
+		return "RingBufferG(size=" + theEvents.length + ", cursor=" + theCursor.get() + ")";
+	}
+
+	/** Demonstrates a journaler and a replicator running in parallel, with business logic behind both. */
+	public static void main(String[] args) throws InterruptedException {
+		class ValueEvent {
+			long theValue;
+		}
+		RingBufferG<ValueEvent> ring = new RingBufferG<>(ValueEvent::new, 1024, new WaitStrategyG.Yielding());
+
+		long[] journaled = { 0 }, replicated = { 0 }, processed = { 0 };
+		SequenceBarrierG first = ring.newBarrier();
+		EventProcessorG<ValueEvent> journaler = new EventProcessorG<>(ring, first,
+				(event, sequence, endOfBatch) -> journaled[0] += event.theValue);
+		EventProcessorG<ValueEvent> replicator = new EventProcessorG<>(ring, first,
+				(event, sequence, endOfBatch) -> replicated[0] += event.theValue);
+		EventProcessorG<ValueEvent> logic = new EventProcessorG<>(ring,
+				ring.newBarrier(journaler.getSequence(), replicator.getSequence()),
+				(event, sequence, endOfBatch) -> processed[0] += event.theValue);
+		ring.addGatingSequences(logic.getSequence());
+
+		Thread[] threads = { new Thread(journaler), new Thread(replicator), new Thread(logic) };
+		for (Thread thread : threads)
+			thread.start();
+		int count = 1_000_000;
+		for (int j = 1; j <= count; j++) {
+			long sequence = ring.next();
+			ring.get(sequence).theValue = j; // written in place, no allocation
+			ring.publish(sequence);
+		}
+		while (logic.getSequence().get() < count - 1)
+			Thread.yield();
+		journaler.halt();
+		replicator.halt();
+		logic.halt();
+		for (Thread thread : threads)
+			thread.join();
+		System.out.println(journaled[0] + " " + replicated[0] + " " + processed[0]); // three equal sums
+	}
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * An executor whose waiting tasks are held in one of our own containers, so
+ * that dispatch order can be compared under an identical worker model: a
+ * QueueIntfG gives FIFO dispatch, a StackIntfG LIFO dispatch and a
+ * PriorityQueueIntfG dispatch by key. At most a fixed number of tasks (the
+ * permits) run at once. A task submitted while a permit is free is started on
+ * a fresh thread from the thread factory; by default that is a virtual thread
+ * when the running JVM supports them, and a platform thread otherwise. When a
+ * task finishes and others are waiting, its thread goes on with the next one
+ * from the container, so the factory is only used by execute(), which rejects
+ * the task if the factory fails.
+ * <p>
+ * For every task the time spent waiting in the container and the time spent
+ * running are recorded. Besides totals and maxima, waits are kept in a
+ * histogram of power-of-two buckets from which tail percentiles can be read.
+ * The container is only touched while holding a ReentrantLock, so it need not
+ * be thread-safe itself, but it must be empty when handed over and must not be
+ * used directly afterwards.
+ *
+ * @see QueueIntfG
+ * @see StackIntfG
+ * @see PriorityQueueIntfG
+ */
+public class RunQueueExecutorG implements Executor {
+
+	/** The operations the executor needs from whichever container it uses. */
+	private interface RunQueue {
+		void add(TimedTask aTask);
+
+		TimedTask remove(); // null if empty
+
+		boolean isEmpty();
+	}
+
+	/** A submitted task together with its submission time. */
+	private final class TimedTask implements Runnable {
+
+		private final Runnable theTask;
+
+		private final long theSubmitted = System.nanoTime();
+
+		private TimedTask(Runnable aTask) {
+			theTask = aTask;
+		}
+
+		/** Runs this task, then the waiting ones, until the container is empty. */
+		@Override
+		public void run() {
+			TimedTask task = this;
+			while (task != null) {
+				try {
+					task.runTimed();
+				} catch (RuntimeException | Error e) { // the thread goes on with the next task
+					Thread current = Thread.currentThread();
+					current.getUncaughtExceptionHandler().uncaughtException(current, e);
+				}
+				task = takeNext();
+			}
+		}
+
+		private void runTimed() {
+			long started = System.nanoTime();
+			try {
+				theTask.run();
+			} finally {
+				long finished = System.nanoTime();
+				record(started - theSubmitted, finished - started);
+			}
+		}
+	}
+
+	private final RunQueue theRunQueue;
+
+	private final int thePermits;
+
+	private final ThreadFactory theThreadFactory;
+
+	private final ReentrantLock theLock = new ReentrantLock();
+
+	private final Condition theTerminated = theLock.newCondition();
+
+	private int theRunning = 0; // tasks holding a permit
+
+	private int theWaiting = 0; // tasks in the run queue
+
+	private boolean theShutdown = false;
+
+	// metrics
+	private final AtomicLong theCompleted = new AtomicLong();
+
+	private final AtomicLong theTotalWait = new AtomicLong();
+
+	private final AtomicLong theTotalRun = new AtomicLong();
+
+	private final AtomicLong theMaxWait = new AtomicLong();
+
+	private final AtomicLong theMaxRun = new AtomicLong();
+
+	private final AtomicLongArray theWaitHistogram = new AtomicLongArray(64); // bucket b: waits below 2^b ns
+
+	// constructors
+	/** Creates an executor dispatching in FIFO order from the given queue. */
+	public RunQueueExecutorG(QueueIntfG<Runnable> aQueue, int aPermits) {
+		this(aQueue, aPermits, defaultThreadFactory());
+	}
+
+	public RunQueueExecutorG(QueueIntfG<Runnable> aQueue, int aPermits, ThreadFactory aThreadFactory) {
+		this(new RunQueue() {
+			public void add(TimedTask aTask) {
+				aQueue.enqueue(aTask);
+			}
+
+			public TimedTask remove() {
+				return (TimedTask) aQueue.dequeue();
+			}
+
+			public boolean isEmpty() {
+				return aQueue.isEmpty();
+			}
+		}, aPermits, aThreadFactory);
+	}
+
+	/** Creates an executor dispatching in LIFO order from the given stack. */
+	public RunQueueExecutorG(StackIntfG<Runnable> aStack, int aPermits) {
+		this(aStack, aPermits, defaultThreadFactory());
+	}
+
+	public RunQueueExecutorG(StackIntfG<Runnable> aStack, int aPermits, ThreadFactory aThreadFactory) {
+		this(new RunQueue() {
+			public void add(TimedTask aTask) {
+				aStack.push(aTask);
+			}
+
+			public TimedTask remove() {
+				return (TimedTask) aStack.pop();
+			}
+
+			public boolean isEmpty() {
+				return aStack.isEmpty();
+			}
+		}, aPermits, aThreadFactory);
+	}
+
+	/**
+	 * Creates an executor dispatching by smallest key first; aKey computes the
+	 * key of a task when it is submitted.
+	 */
+	public <K> RunQueueExecutorG(PriorityQueueIntfG<K, Runnable> aQueue, Function<? super Runnable, K> aKey,
+			int aPermits, ThreadFactory aThreadFactory) {
+		this(new RunQueue() {
+			public void add(TimedTask aTask) {
+				aQueue.insert(aKey.apply(aTask.theTask), aTask);
+			}
+
+			public TimedTask remove() {
+				return (TimedTask) aQueue.removeMin();
+			}
+
+			public boolean isEmpty() {
+				return aQueue.isEmpty();
+			}
+		}, aPermits, aThreadFactory);
+	}
+
+	private RunQueueExecutorG(RunQueue aRunQueue, int aPermits, ThreadFactory aThreadFactory) {
+		if (aPermits < 1)
+			throw new IllegalArgumentException("Permits must be positive: " + aPermits);
+		theRunQueue = aRunQueue;
+		thePermits = aPermits;
+		theThreadFactory = aThreadFactory;
+	}
+
+	/**
+	 * Returns a factory for virtual threads if the running JVM has them (Java 21
+	 * and later), otherwise a factory for daemon platform threads. Reflection
+	 * keeps this class compilable on older JDKs.
+	 */
+	public static ThreadFactory defaultThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			return (ThreadFactory) builder.getClass().getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return aTask -> {
+				Thread thread = new Thread(aTask);
+				thread.setDaemon(true);
+				return thread;
+			};
+		}
+	}
+
+	/**
+	 * Starts a task at once if a permit is free, or adds it to the run queue.
+	 * 
+	 * @throws RejectedExecutionException if the executor has been shut down, or
+	 *                                    if the thread factory fails to create a
+	 *                                    thread for the task
+	 */
+	@Override
+	public void execute(Runnable aTask) throws RejectedExecutionException {
+		if (aTask == null)
+			throw new NullPointerException("Null tasks are not permitted");
+		theLock.lock();
+		try {
+			if (theShutdown)
+				throw new RejectedExecutionException("Executor is shut down");
+			TimedTask task = new TimedTask(aTask);
+			if (theRunning < thePermits) { // the run queue is empty: a free permit would have taken its tasks
+				Thread thread;
+				try {
+					thread = theThreadFactory.newThread(task);
+				} catch (RuntimeException | Error e) {
+					throw new RejectedExecutionException("Thread factory failed", e);
+				}
+				if (thread == null)
+					throw new RejectedExecutionException("Thread factory returned null");
+				thread.start();
+				theRunning++;
+			} else {
+				theRunQueue.add(task);
+				theWaiting++;
+			}
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	/**
+	 * Called by a thread that has finished a task: returns the next waiting task
+	 * for it to run, or gives its permit back and returns null if none.
+	 */
+	private TimedTask takeNext() {
+		theLock.lock();
+		try {
+			if (theRunQueue.isEmpty()) {
+				theRunning--;
+				signalIfTerminated();
+				return null;
+			}
+			theWaiting--;
+			return theRunQueue.remove();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	/** Called with the lock held. */
+	private void signalIfTerminated() {
+		if (theShutdown && theRunning == 0 && theWaiting == 0)
+			theTerminated.signalAll();
+	}
+
+	/** Stops accepting tasks; those already submitted still run. */
+	public void shutdown() {
+		theLock.lock();
+		try {
+			theShutdown = true;
+			signalIfTerminated();
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	/**
+	 * Waits until the executor has been shut down and every task has finished.
+	 * 
+	 * @return true if terminated, false if the time ran out
+	 */
+	public boolean awaitTermination(long aTimeout, TimeUnit aUnit) throws InterruptedException {
+		long nanos = aUnit.toNanos(aTimeout);
+		theLock.lock();
+		try {
+			while (!(theShutdown && theRunning == 0 && theWaiting == 0)) {
+				if (nanos <= 0)
+					return false;
+				nanos = theTerminated.awaitNanos(nanos);
+			}
+			return true;
+		} finally {
+			theLock.unlock();
+		}
+	}
+
+	private void record(long aWait, long aRun) {
+		theCompleted.incrementAndGet();
+		theTotalWait.addAndGet(aWait);
+		theTotalRun.addAndGet(aRun);
+		theMaxWait.accumulateAndGet(aWait, Math::max);
+		theMaxRun.accumulateAndGet(aRun, Math::max);
+		theWaitHistogram.incrementAndGet(64 - Long.numberOfLeadingZeros(Math.max(aWait, 0))); // bit length
+	}
+
+	public long completedCount() {
+		return theCompleted.get();
+	}
+
+	public double meanWaitNanos() {
+		long count = theCompleted.get();
+		return (count == 0) ? 0 : (double) theTotalWait.get() / count;
+	}
+
+	public double meanRunNanos() {
+		long count = theCompleted.get();
+		return (count == 0) ? 0 : (double) theTotalRun.get() / count;
+	}
+
+	public long maxWaitNanos() {
+		return theMaxWait.get();
+	}
+
+	public long maxRunNanos() {
+		return theMaxRun.get();
+	}
+
+	/**
+	 * Returns an upper bound on the given percentile of queue wait times, to
+	 * within a factor of two.
+	 * 
+	 * @param aPercentile between 0 and 100
+	 */
+	public long waitPercentileNanos(double aPercentile) {
+		long count = 0;
+		for (int b = 0; b < 64; b++)
+			count += theWaitHistogram.get(b);
+		long rank = (long) Math.ceil(count * aPercentile / 100.0);
+		long seen = 0;
+		for (int b = 0; b < 64; b++) {
+			seen += theWaitHistogram.get(b);
+			if (seen >= rank && seen > 0)
+				return (b >= 63) ? Long.MAX_VALUE : (1L << b);
+		}
+		return 0;
+	}
+
+	public String toString() {
+		return String.format("RunQueueExecutorG(completed=%d, meanWait=%.0fns, p99Wait<=%dns, maxWait=%dns, meanRun=%.0fns)",
+				completedCount(), meanWaitNanos(), waitPercentileNanos(99), maxWaitNanos(), meanRunNanos());
+	}
+
+	/** Compares FIFO and LIFO dispatch of the same workload. */
+	public static void main(String[] args) throws InterruptedException {
+		RunQueueExecutorG[] executors = { new RunQueueExecutorG(new LinkedQueueG<Runnable>(), 4),
+				new RunQueueExecutorG(new LinkedStackG<Runnable>(), 4) };
+		for (RunQueueExecutorG executor : executors) {
+			for (int j = 0; j < 2000; j++) {
+				executor.execute(() -> {
+					long sum = 0;
+					for (int i = 0; i < 20_000; i++)
+						sum += i;
+					if (sum == 42)
+						System.out.println(sum); // keeps the loop from being optimized away
+				});
+			}
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+			System.out.println(executor);
+		}
+	}
+}
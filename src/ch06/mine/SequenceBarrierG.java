@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * Tells a consumer of a RingBufferG which sequences it may read: those that
+ * producers have published and that every consumer it depends on has already
+ * processed. A barrier can be alerted to make a waiting consumer stop.
+ *
+ * @see RingBufferG#newBarrier(SequenceG...)
+ */
+public class SequenceBarrierG {
+
+	/** Thrown out of waitFor when the barrier has been alerted. */
+	public static final class AlertException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+		static final AlertException INSTANCE = new AlertException();
+
+		private AlertException() {
+			super("Barrier alerted", null, false, false); // no stack trace needed
+		}
+	}
+
+	private final RingBufferG<?> theRingBuffer;
+
+	private final WaitStrategyG theWaitStrategy;
+
+	private final SequenceG[] theDependents;
+
+	private volatile boolean theAlerted = false;
+
+	SequenceBarrierG(RingBufferG<?> aRingBuffer, WaitStrategyG aWaitStrategy, SequenceG[] aDependents) {
+		theRingBuffer = aRingBuffer;
+		theWaitStrategy = aWaitStrategy;
+		theDependents = (aDependents.length == 0) ? new SequenceG[] { aRingBuffer.cursor() } : aDependents.clone();
+	}
+
+	/**
+	 * Waits until aSequence may be read.
+	 * 
+	 * @return the highest sequence that may be read, which may be above aSequence
+	 *         so that a whole batch can be handled at once
+	 * @throws AlertException       if the barrier is alerted
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public long waitFor(long aSequence) throws AlertException, InterruptedException {
+		checkAlert();
+		long available = theWaitStrategy.waitFor(aSequence, theRingBuffer.cursor(), theDependents, this);
+		return theRingBuffer.highestPublished(aSequence, available); // claimed is not yet published
+	}
+
+	public void alert() {
+		theAlerted = true;
+		theWaitStrategy.signalAllWhenBlocking();
+	}
+
+	public void clearAlert() {
+		theAlerted = false;
+	}
+
+	public boolean isAlerted() {
+		return theAlerted;
+	}
+
+	public void checkAlert() throws AlertException {
+		if (theAlerted)
+			throw AlertException.INSTANCE;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A sequence counter for RingBufferG, padded on both sides so that two
+ * sequences updated by different threads never share a cache line. A sequence
+ * starts at -1, meaning that nothing has been claimed or processed yet.
+ *
+ * @see RingBufferG
+ */
+public class SequenceG extends SequenceValue {
+
+	long p10, p11, p12, p13, p14, p15, p16;
+
+	private static final AtomicLongFieldUpdater<SequenceValue> VALUE = AtomicLongFieldUpdater
+			.newUpdater(SequenceValue.class, "theValue");
+
+	public SequenceG() {
+		this(-1);
+	}
+
+	public SequenceG(long aInitialValue) {
+		theValue = aInitialValue;
+	}
+
+	public long get() {
+		return theValue;
+	}
+
+	/** Stores a new value with release semantics (an ordered, cheaper store). */
+	public void set(long aValue) {
+		VALUE.lazySet(this, aValue);
+	}
+
+	/** Stores a new value with full volatile semantics. */
+	public void setVolatile(long aValue) {
+		theValue = aValue;
+	}
+
+	public boolean compareAndSet(long aExpected, long aValue) {
+		return VALUE.compareAndSet(this, aExpected, aValue);
+	}
+
+	/** Returns the smallest value among the given sequences, or aDefault if there are none. */
+	public static long minimum(SequenceG[] aSequences, long aDefault) {
+		long minimum = aDefault;
+		for (SequenceG sequence : aSequences)
+			minimum = Math.min(minimum, sequence.get());
+		return minimum;
+	}
+
+	public String toString() {
+		return Long.toString(get());
+	}
+}
+
+/*
+ * The value is declared in a superclass so that the JVM places the padding
+ * fields of the two classes on either side of it.
+ */
+
+abstract class SequencePadding {
+	long p00, p01, p02, p03, p04, p05, p06;
+}
+
+abstract class SequenceValue extends SequencePadding {
+	volatile long theValue;
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * Converts elements to and from variable-length byte arrays, so that they can
+ * be written to a file.
+ *
+ * @see JournalQueueG
+ */
+public interface SerializerG<E> {
+
+  /**
+   * Encodes an element.
+   * @param aElement  the element to be encoded
+   * @return the encoded bytes
+   */
+  byte[] serialize(E aElement);
+
+  /**
+   * Decodes an element previously encoded by serialize.
+   * @param aBytes  the encoded bytes
+   * @return the decoded element
+   */
+  E deserialize(byte[] aBytes);
+}
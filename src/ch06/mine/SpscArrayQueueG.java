@@ -0,0 +1,209 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Implementation of the queue ADT for exactly one producer thread and one
+ * consumer thread. The capacity is rounded up to a power of two so that a slot
+ * is found with a mask instead of the modular arithmetic of ArrayQueueG. The
+ * producer and consumer counters live on separate cache lines, and each side
+ * keeps a cached copy of the other side's counter, re-reading the shared value
+ * only when the cached copy says the queue is full (or empty). Neither side ever
+ * waits for the other, so every operation completes in constant time.
+ * <p>
+ * Only the producer thread may call enqueue/offer, and only the consumer thread
+ * may call dequeue/first. Null elements are not permitted.
+ *
+ * @see ArrayQueueG
+ * @see ConcurrentArrayQueueG
+ */
+public class SpscArrayQueueG<E> extends SpscConsumerFields<E> implements QueueIntfG<E> {
+
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	// padding keeps the consumer fields off the cache line of whatever follows
+	long p10, p11, p12, p13, p14, p15, p16, p17;
+
+	// constructors
+	public SpscArrayQueueG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public SpscArrayQueueG(int aCapacity) {
+		super(roundToPowerOfTwo(aCapacity));
+	}
+
+	private static int roundToPowerOfTwo(int aCapacity) {
+		if (aCapacity < 1 || aCapacity > (1 << 30))
+			throw new IllegalArgumentException("Illegal capacity: " + aCapacity);
+		return 1 << (32 - Integer.numberOfLeadingZeros(aCapacity - 1));
+	}
+
+	public int capacity() {
+		return theData.length;
+	}
+
+	/**
+	 * Returns the number of elements in the queue. While the producer or consumer
+	 * is active the value is only a snapshot.
+	 */
+	@Override
+	public int size() {
+		long size = theTail - theHead;
+		return (int) Math.max(0, Math.min(size, theData.length));
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return (theTail == theHead);
+	}
+
+	/**
+	 * Inserts an element at the rear of the queue if there is room for it. May
+	 * only be called from the producer thread.
+	 * 
+	 * @param aElement the element to be inserted
+	 * @return true if the element was inserted, false if the queue is full
+	 */
+	public boolean offer(E aElement) {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+		long tail = theTail;
+		if (tail - theCachedHead >= theData.length) {
+			theCachedHead = theHead; // refresh our view of the consumer
+			if (tail - theCachedHead >= theData.length)
+				return false;
+		}
+		theData[(int) tail & theMask] = aElement;
+		TAIL.lazySet(this, tail + 1); // ordered store publishes the element
+		return true;
+	}
+
+	@Override
+	public void enqueue(E aElement) throws IllegalStateException {
+		if (!offer(aElement))
+			throw new IllegalStateException("Queue is full");
+	}
+
+	/** May only be called from the consumer thread. */
+	@Override
+	public E first() {
+		long head = theHead;
+		if (head >= theCachedTail) {
+			theCachedTail = theTail; // refresh our view of the producer
+			if (head >= theCachedTail)
+				return null;
+		}
+		return theData[(int) head & theMask];
+	}
+
+	/** May only be called from the consumer thread. */
+	@Override
+	public E dequeue() {
+		long head = theHead;
+		if (head >= theCachedTail) {
+			theCachedTail = theTail; // refresh our view of the producer
+			if (head >= theCachedTail)
+				return null;
+		}
+		int index = (int) head & theMask;
+		E result = theData[index];
+		theData[index] = null; // dereference to help garbage collection
+		HEAD.lazySet(this, head + 1); // ordered store hands the slot back
+		return result;
+	}
+
+	/**
+	 * Returns a string representation of the queue as a list of elements. The
+	 * result is only meaningful while neither side is updating the queue.
+	 * 
+	 * @return textual representation of the queue.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		for (long position = theHead; position < theTail; position++) {
+			if (position > theHead)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(theData[(int) position & theMask]);
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<SpscProducerFields> TAIL = AtomicLongFieldUpdater
+			.newUpdater(SpscProducerFields.class, "theTail");
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicLongFieldUpdater<SpscConsumerFields> HEAD = AtomicLongFieldUpdater
+			.newUpdater(SpscConsumerFields.class, "theHead");
+}
+
+/*
+ * The fields of SpscArrayQueueG are split over a chain of superclasses because
+ * the JVM lays out superclass fields before subclass fields; the padding longs
+ * in between keep the producer and consumer counters on separate cache lines.
+ */
+
+abstract class SpscPaddedData<E> {
+
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+
+	final E[] theData;
+
+	final int theMask;
+
+	@SuppressWarnings({ "unchecked" })
+	SpscPaddedData(int aCapacity) {
+		theData = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		theMask = aCapacity - 1;
+	}
+}
+
+abstract class SpscProducerFields<E> extends SpscPaddedData<E> {
+
+	long p20, p21, p22, p23, p24, p25, p26, p27;
+
+	volatile long theTail = 0; // written only by the producer
+
+	long theCachedHead = 0; // producer's copy of theHead
+
+	SpscProducerFields(int aCapacity) {
+		super(aCapacity);
+	}
+}
+
+abstract class SpscConsumerFields<E> extends SpscProducerFields<E> {
+
+	long p30, p31, p32, p33, p34, p35, p36, p37;
+
+	volatile long theHead = 0; // written only by the consumer
+
+	long theCachedTail = 0; // consumer's copy of theTail
+
+	SpscConsumerFields(int aCapacity) {
+		super(aCapacity);
+	}
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A task that can be run by a WorkStealingPoolG. A task splits its work by
+ * creating subtasks, calling fork() on some of them so that idle workers can
+ * steal them, and join() to wait for their results; while a worker waits in
+ * join() it runs other tasks instead of blocking.
+ *
+ * @see WorkStealingPoolG
+ */
+public abstract class StealingTaskG<V> {
+
+	private volatile boolean theDone = false;
+
+	private V theResult;
+
+	private Throwable theFailure;
+
+	private volatile Thread theWaiter; // external thread parked in WorkStealingPoolG.invoke
+
+	/**
+	 * Performs the work of this task.
+	 * 
+	 * @return the result of the task
+	 */
+	protected abstract V compute();
+
+	/**
+	 * Schedules this task to run on the pool of the calling worker thread.
+	 * 
+	 * @throws IllegalStateException if not called from a pool worker
+	 */
+	public final StealingTaskG<V> fork() throws IllegalStateException {
+		WorkStealingPoolG.currentWorker().push(this);
+		return this;
+	}
+
+	/**
+	 * Returns the result of this task once it is done. A pool worker runs other
+	 * tasks while it waits. If compute() threw an exception it is rethrown here.
+	 */
+	public final V join() {
+		if (!theDone) {
+			Thread current = Thread.currentThread();
+			if (current instanceof WorkStealingPoolG.Worker)
+				((WorkStealingPoolG.Worker) current).helpUntilDone(this);
+			else
+				awaitDone();
+		}
+		return result();
+	}
+
+	/** Runs this task in the calling thread and returns its result. */
+	public final V invoke() {
+		exec();
+		return result();
+	}
+
+	public final boolean isDone() {
+		return theDone;
+	}
+
+	final void exec() {
+		try {
+			theResult = compute();
+		} catch (Throwable e) {
+			theFailure = e;
+		}
+		theDone = true; // publishes theResult and theFailure
+		Thread waiter = theWaiter;
+		if (waiter != null)
+			LockSupport.unpark(waiter);
+	}
+
+	/** Parks the calling thread, which is not a pool worker, until the task is done. */
+	final void awaitDone() {
+		theWaiter = Thread.currentThread();
+		while (!theDone)
+			LockSupport.park(this);
+		theWaiter = null;
+	}
+
+	private V result() {
+		if (theFailure instanceof RuntimeException)
+			throw (RuntimeException) theFailure;
+		if (theFailure instanceof Error)
+			throw (Error) theFailure;
+		if (theFailure != null)
+			throw new RuntimeException(theFailure);
+		return theResult;
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel: a circle of buckets, one per tick, that turns by one
+ * bucket every time the clock ticks. A timeout due in d ticks is dropped into
+ * the bucket d positions ahead of the current one; if d is larger than the
+ * number of buckets it goes round the wheel several times (overflow rounds) and
+ * is only expired on the visit at which its deadline has been reached. Each
+ * bucket is a doubly linked list of its timeouts, so scheduling and cancelling
+ * take constant time, and a tick costs time proportional to the size of one
+ * bucket.
+ * <p>
+ * The wheel has no clock of its own: time moves only when advance() is called,
+ * so it can be driven deterministically, and all timeouts reaching their
+ * deadline during the advance are handed to the given consumer in one batch.
+ * The buckets sit in a circular array indexed by the tick count modulo the
+ * (power of two) number of buckets; turning the wheel is therefore the
+ * array counterpart of CircularQueueIntfG.rotate(). The wheel is not safe for
+ * use by several threads at once.
+ *
+ * @see CircularQueueIntfG
+ */
+public class TimingWheelG<E> {
+	// ---------------- nested Timeout class ----------------
+	/**
+	 * A scheduled element, which also serves as the node of its bucket list. It
+	 * is returned by schedule() so that the timeout can be cancelled.
+	 */
+	public static final class Timeout<E> {
+
+		private final E theElement;
+
+		private final long theDeadline; // tick at which this timeout expires
+
+		private Timeout<E> thePrevious;
+
+		private Timeout<E> theNext;
+
+		private TimingWheelG<E> theWheel; // null once expired or cancelled
+
+		private Timeout(E aElement, long aDeadline) {
+			theElement = aElement;
+			theDeadline = aDeadline;
+		}
+
+		public E getElement() {
+			return theElement;
+		}
+
+		public long getDeadline() {
+			return theDeadline;
+		}
+
+		/** Tests whether this timeout is still waiting to expire. */
+		public boolean isPending() {
+			return theWheel != null;
+		}
+
+		/**
+		 * Cancels this timeout in constant time.
+		 * 
+		 * @return true if it was pending, false if it had already expired or been
+		 *         cancelled
+		 */
+		public boolean cancel() {
+			if (theWheel == null)
+				return false;
+			theWheel.unlink(this);
+			return true;
+		}
+	} // ----------- end of nested Timeout class -----------
+
+	public static final int DEFAULT_WHEEL_SIZE = 512;
+
+	private final Timeout<E>[] theBuckets; // head of the list in each bucket
+
+	private final int theMask;
+
+	private long theTick = 0; // the current time
+
+	private int theSize = 0;
+
+	public TimingWheelG() {
+		this(DEFAULT_WHEEL_SIZE);
+	}
+
+	@SuppressWarnings({ "unchecked" })
+	public TimingWheelG(int aWheelSize) { // rounded up to a power of two
+		if (aWheelSize < 1 || aWheelSize > (1 << 30))
+			throw new IllegalArgumentException("Illegal wheel size: " + aWheelSize);
+		int length = 1 << (32 - Integer.numberOfLeadingZeros(aWheelSize - 1));
+		theBuckets = (Timeout<E>[]) new Timeout<?>[length]; // safe cast; compiler may give warning
+		theMask = length - 1;
+	}
+
+	/** Returns the number of pending timeouts. */
+	public int size() {
+		return theSize;
+	}
+
+	public boolean isEmpty() {
+		return (theSize == 0);
+	}
+
+	/** Returns the current tick. */
+	public long currentTick() {
+		return theTick;
+	}
+
+	/**
+	 * Schedules an element to expire after the given number of ticks.
+	 * 
+	 * @param aElement the element to be handed out on expiry
+	 * @param aDelay   ticks from now; values below 1 mean the next tick
+	 * @return a handle through which the timeout can be cancelled
+	 */
+	public Timeout<E> schedule(E aElement, long aDelay) {
+		Timeout<E> timeout = new Timeout<>(aElement, theTick + Math.max(1, aDelay));
+		int index = (int) timeout.theDeadline & theMask;
+		Timeout<E> head = theBuckets[index];
+		timeout.theNext = head; // insert at the head of the bucket
+		if (head != null)
+			head.thePrevious = timeout;
+		theBuckets[index] = timeout;
+		timeout.theWheel = this;
+		theSize++;
+		return timeout;
+	}
+
+	/**
+	 * Turns the wheel by one tick and expires the timeouts now due.
+	 * 
+	 * @param aExpired receives the elements of the expired timeouts
+	 * @return the number of timeouts that expired
+	 */
+	public int advance(Consumer<? super E> aExpired) {
+		theTick++;
+		int expired = 0;
+		Timeout<E> dueHead = null; // due timeouts, detached before any callback runs
+		Timeout<E> dueTail = null;
+		Timeout<E> walk = theBuckets[(int) theTick & theMask];
+		while (walk != null) {
+			Timeout<E> next = walk.theNext;
+			if (walk.theDeadline <= theTick) { // otherwise still has rounds to go
+				unlink(walk);
+				if (dueTail == null)
+					dueHead = walk;
+				else
+					dueTail.theNext = walk;
+				dueTail = walk;
+				expired++;
+			}
+			walk = next;
+		}
+		while (dueHead != null) { // callbacks may now schedule or cancel freely
+			Timeout<E> due = dueHead;
+			dueHead = due.theNext;
+			due.theNext = null;
+			aExpired.accept(due.theElement);
+		}
+		return expired;
+	}
+
+	/**
+	 * Turns the wheel by the given number of ticks, expiring timeouts as their
+	 * deadlines are reached.
+	 * 
+	 * @return the number of timeouts that expired
+	 */
+	public int advance(long aTicks, Consumer<? super E> aExpired) {
+		int expired = 0;
+		for (long j = 0; j < aTicks; j++) {
+			if (theSize == 0) { // nothing to expire: jump straight to the end
+				theTick += aTicks - j;
+				break;
+			}
+			expired += advance(aExpired);
+		}
+		return expired;
+	}
+
+	private void unlink(Timeout<E> aTimeout) {
+		Timeout<E> previous = aTimeout.thePrevious;
+		Timeout<E> next = aTimeout.theNext;
+		if (previous == null)
+			theBuckets[(int) aTimeout.theDeadline & theMask] = next;
+		else
+			previous.theNext = next;
+		if (next != null)
+			next.thePrevious = previous;
+		aTimeout.thePrevious = null;
+		aTimeout.theNext = null;
+		aTimeout.theWheel = null;
+		theSize--;
+	}
+
+	public String toString() {
+		return "TimingWheelG(tick=" + theTick + ", buckets=" + theBuckets.length + ", pending=" + theSize + ")";
+	}
+
+	/** Demonstrates deterministic expiry, including a timeout longer than the wheel. */
+	public static void main(String[] args) {
+		TimingWheelG<String> wheel = new TimingWheelG<>(8);
+		wheel.schedule("a", 3);
+		Timeout<String> b = wheel.schedule("b", 3);
+		wheel.schedule("c", 20); // goes round the wheel twice before expiring
+		b.cancel();
+		for (int tick = 1; tick <= 20; tick++) {
+			final int now = tick;
+			wheel.advance(e -> System.out.println("tick " + now + ": " + e + " expired")); // a at 3, c at 20
+		}
+		System.out.println(wheel);
+	}
+}
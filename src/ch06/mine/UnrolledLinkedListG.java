@@ -0,0 +1,198 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+/**
+ * A singly linked list whose nodes each hold a small array of elements rather
+ * than a single one (an unrolled linked list). The elements of a node occupy
+ * the index range [start, end) of its array: addFirst fills a node from the
+ * back and addLast from the front, and a new node is linked in only when the
+ * node at that end is full. Compared with SinglyLinkedListG the per-element
+ * overhead drops from a whole node to one array slot, and walking the list
+ * touches consecutive memory. One emptied node is kept as a spare, so a list
+ * that grows and shrinks across a node boundary does not allocate each time.
+ * All operations are performed in constant time.
+ *
+ * @see SinglyLinkedListG
+ */
+public class UnrolledLinkedListG<E> {
+	// ---------------- nested Node class ----------------
+	/**
+	 * Node of an unrolled list, which stores up to a fixed number of elements
+	 * and a reference to the subsequent node in the list (or null if this is the
+	 * last node).
+	 */
+	private static class Node<E> {
+
+		private final E[] theElements;
+
+		private int theStart; // index of the first element
+
+		private int theEnd; // index after the last element
+
+		private Node<E> theNext;
+
+		@SuppressWarnings({ "unchecked" })
+		public Node(int aCapacity) {
+			theElements = (E[]) new Object[aCapacity]; // safe cast; compiler may give warning
+		}
+
+		public boolean isEmpty() {
+			return theStart == theEnd;
+		}
+
+		public Node<E> getNext() {
+			return theNext;
+		}
+
+		public void setNext(Node<E> aNode) {
+			theNext = aNode;
+		}
+	} // ----------- end of nested Node class -----------
+
+	public static final int DEFAULT_NODE_CAPACITY = 32;
+
+	// instance variables of the UnrolledLinkedList
+	private final int theNodeCapacity;
+
+	private Node<E> theHead = null; // head node of the list (or null if empty)
+
+	private Node<E> theTail = null; // last node of the list (or null if empty)
+
+	private Node<E> theSpare = null; // an emptied node kept for reuse
+
+	private int theSize = 0;
+
+	public UnrolledLinkedListG() {
+		this(DEFAULT_NODE_CAPACITY);
+	}
+
+	public UnrolledLinkedListG(int aNodeCapacity) {
+		if (aNodeCapacity < 1)
+			throw new IllegalArgumentException("Node capacity must be positive: " + aNodeCapacity);
+		theNodeCapacity = aNodeCapacity;
+	}
+
+	public int size() {
+		return theSize;
+	}
+
+	public boolean isEmpty() {
+		return theSize == 0;
+	}
+
+	public E first() { // returns (but does not remove) the first element
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theHead.theElements[theHead.theStart];
+		}
+	}
+
+	public E last() { // returns (but does not remove) the last element
+		if (isEmpty()) {
+			return null;
+		} else {
+			return theTail.theElements[theTail.theEnd - 1];
+		}
+	}
+
+	public void addFirst(E aElement) { // adds element e to the front of the list
+		if (theHead == null || theHead.theStart == 0) {
+			// no room before the first element: link a new head node, filled from the back
+			Node<E> newNode = newNode(theNodeCapacity);
+			newNode.setNext(theHead);
+			theHead = newNode;
+			if (theTail == null)
+				theTail = newNode; // special case: new node becomes tail also
+		}
+		theHead.theStart--;
+		theHead.theElements[theHead.theStart] = aElement;
+		theSize = theSize + 1;
+	}
+
+	public void addLast(E aElement) { // adds element e to the end of the list
+		if (theTail == null || theTail.theEnd == theNodeCapacity) {
+			// no room after the last element: link a new tail node, filled from the front
+			Node<E> newNode = newNode(0);
+			if (theTail == null)
+				theHead = newNode; // special case: previously empty list
+			else
+				theTail.setNext(newNode);
+			theTail = newNode;
+		}
+		theTail.theElements[theTail.theEnd] = aElement;
+		theTail.theEnd++;
+		theSize = theSize + 1;
+	}
+
+	public E removeFirst() { // removes and returns the first element
+		if (isEmpty()) {
+			return null;
+		} else {
+			Node<E> head = theHead;
+			E answer = head.theElements[head.theStart];
+			head.theElements[head.theStart] = null; // dereference to help garbage collection
+			head.theStart++;
+			theSize = theSize - 1;
+			if (head.isEmpty()) {
+				theHead = head.getNext(); // will become null if list had only one node
+				if (theHead == null)
+					theTail = null; // special case as list is now empty
+				head.setNext(null);
+				theSpare = head;
+			}
+			return answer;
+		}
+	}
+
+	/** Returns an empty node whose elements will start and end at aPosition. */
+	private Node<E> newNode(int aPosition) {
+		Node<E> node = theSpare;
+		if (node == null)
+			node = new Node<>(theNodeCapacity);
+		else
+			theSpare = null;
+		node.theStart = aPosition;
+		node.theEnd = aPosition;
+		return node;
+	}
+
+	/**
+	 * Produces a string representation of the contents of the list. This exists for
+	 * debugging purposes only.
+	 */
+	public String toString() {
+		StringBuilder sb = new StringBuilder("(");
+		int count = 0;
+		for (Node<E> walk = theHead; walk != null; walk = walk.getNext()) {
+			for (int j = walk.theStart; j < walk.theEnd; j++) {
+				if (count++ > 0)
+					sb.append(", ");
+				sb.append(walk.theElements[j]);
+			}
+		}
+		sb.append(")");
+		return sb.toString();
+	}
+}
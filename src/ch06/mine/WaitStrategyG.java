@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Strategy used by a SequenceBarrierG to wait until a sequence becomes
+ * available. The strategies trade latency against CPU use: BusySpin reacts
+ * fastest but occupies a core, Yielding gives the core up between checks,
+ * Sleeping parks briefly, and Blocking parks on a condition until a producer
+ * publishes.
+ *
+ * @see SequenceBarrierG
+ */
+public interface WaitStrategyG {
+
+  /**
+   * Waits until aSequence has been claimed by producers and processed by every
+   * dependent consumer.
+   * @param aSequence    the sequence wanted
+   * @param aCursor      the producers' claim cursor
+   * @param aDependents  sequences that must reach aSequence first (the cursor
+   *                     itself if there are none)
+   * @param aBarrier     barrier on whose behalf we wait, checked for alerts
+   * @return the highest sequence that is available, at least aSequence
+   * @throws SequenceBarrierG.AlertException if the barrier is alerted
+   * @throws InterruptedException if interrupted while waiting
+   */
+  long waitFor(long aSequence, SequenceG aCursor, SequenceG[] aDependents, SequenceBarrierG aBarrier)
+      throws SequenceBarrierG.AlertException, InterruptedException;
+
+  /** Wakes any consumer blocked in waitFor; called after each publish. */
+  void signalAllWhenBlocking();
+
+  /** Spins on the sequences without ever giving up the processor. */
+  final class BusySpin implements WaitStrategyG {
+    @Override
+    public long waitFor(long aSequence, SequenceG aCursor, SequenceG[] aDependents, SequenceBarrierG aBarrier)
+        throws SequenceBarrierG.AlertException {
+      long available;
+      while ((available = SequenceG.minimum(aDependents, Long.MAX_VALUE)) < aSequence) {
+        aBarrier.checkAlert();
+        Thread.onSpinWait();
+      }
+      return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+  }
+
+  /** Spins for a while, then yields the processor between checks. */
+  final class Yielding implements WaitStrategyG {
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public long waitFor(long aSequence, SequenceG aCursor, SequenceG[] aDependents, SequenceBarrierG aBarrier)
+        throws SequenceBarrierG.AlertException {
+      long available;
+      int counter = SPIN_TRIES;
+      while ((available = SequenceG.minimum(aDependents, Long.MAX_VALUE)) < aSequence) {
+        aBarrier.checkAlert();
+        if (counter > 0)
+          counter--;
+        else
+          Thread.yield();
+      }
+      return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+  }
+
+  /** Spins, then yields, then parks for short periods between checks. */
+  final class Sleeping implements WaitStrategyG {
+    private static final int RETRIES = 200;
+
+    private final long theSleepNanos;
+
+    public Sleeping() {
+      this(100, TimeUnit.MICROSECONDS);
+    }
+
+    public Sleeping(long aSleep, TimeUnit aUnit) {
+      theSleepNanos = aUnit.toNanos(aSleep);
+    }
+
+    @Override
+    public long waitFor(long aSequence, SequenceG aCursor, SequenceG[] aDependents, SequenceBarrierG aBarrier)
+        throws SequenceBarrierG.AlertException {
+      long available;
+      int counter = RETRIES;
+      while ((available = SequenceG.minimum(aDependents, Long.MAX_VALUE)) < aSequence) {
+        aBarrier.checkAlert();
+        if (counter > RETRIES / 2)
+          counter--;
+        else if (counter > 0) {
+          counter--;
+          Thread.yield();
+        } else
+          LockSupport.parkNanos(theSleepNanos);
+      }
+      return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+    }
+  }
+
+  /**
+   * Parks on a condition until the producers' cursor reaches the sequence, then
+   * spins until the dependent consumers catch up (they do not signal).
+   */
+  final class Blocking implements WaitStrategyG {
+    private final ReentrantLock theLock = new ReentrantLock();
+
+    private final Condition theProcessorNotify = theLock.newCondition();
+
+    @Override
+    public long waitFor(long aSequence, SequenceG aCursor, SequenceG[] aDependents, SequenceBarrierG aBarrier)
+        throws SequenceBarrierG.AlertException, InterruptedException {
+      if (aCursor.get() < aSequence) {
+        theLock.lock();
+        try {
+          while (aCursor.get() < aSequence) {
+            aBarrier.checkAlert();
+            theProcessorNotify.await();
+          }
+        } finally {
+          theLock.unlock();
+        }
+      }
+      long available;
+      while ((available = SequenceG.minimum(aDependents, Long.MAX_VALUE)) < aSequence) {
+        aBarrier.checkAlert();
+        Thread.onSpinWait();
+      }
+      return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+      theLock.lock();
+      try {
+        theProcessorNotify.signalAll();
+      } finally {
+        theLock.unlock();
+      }
+    }
+  }
+}
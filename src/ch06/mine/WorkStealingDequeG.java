@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Lock-free work-stealing deque (the Chase-Lev algorithm). One thread, the
+ * owner, adds and removes elements at the bottom (the last end) as if the deque
+ * were a stack; any other thread, a thief, may take elements from the top (the
+ * first end). The owner only competes with thieves, through a compare-and-set
+ * on the top index, when a single element is left. The circular array is
+ * doubled when the owner finds it full.
+ * <p>
+ * Since the two ends are not interchangeable this is not a DequeIntfG: push
+ * and pop may only be called by the owner, steal may be called by any thread,
+ * and there is no way to add an element at the top. steal may return null
+ * when it loses a race against another thread even though the deque is not
+ * empty; a thief then simply looks elsewhere. size, first and last are
+ * snapshots. Null elements are not permitted.
+ *
+ * @see DequeIntfG
+ * @see WorkStealingPoolG
+ */
+public class WorkStealingDequeG<E> {
+
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private volatile AtomicReferenceArray<E> theArray; // length is a power of two
+
+	private final AtomicLong theTop = new AtomicLong(); // next element to steal
+
+	private volatile long theBottom = 0; // next free slot; written only by the owner
+
+	// constructors
+	public WorkStealingDequeG() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	public WorkStealingDequeG(int aCapacity) { // rounded up to a power of two
+		if (aCapacity < 1 || aCapacity > (1 << 30))
+			throw new IllegalArgumentException("Illegal capacity: " + aCapacity);
+		theArray = new AtomicReferenceArray<>(1 << (32 - Integer.numberOfLeadingZeros(aCapacity - 1)));
+	}
+
+	public int size() {
+		long size = theBottom - theTop.get();
+		return (int) Math.max(0, size);
+	}
+
+	public boolean isEmpty() {
+		return (size() == 0);
+	}
+
+	/** Returns, but does not remove, the element a thief would steal next. */
+	public E first() {
+		long top = theTop.get();
+		if (top >= theBottom)
+			return null;
+		AtomicReferenceArray<E> array = theArray;
+		return array.get((int) top & (array.length() - 1));
+	}
+
+	/** Returns, but does not remove, the element the owner would pop next. */
+	public E last() {
+		long bottom = theBottom - 1;
+		if (bottom < theTop.get())
+			return null;
+		AtomicReferenceArray<E> array = theArray;
+		return array.get((int) bottom & (array.length() - 1));
+	}
+
+	/** Pushes an element at the bottom. May only be called by the owner. */
+	public void push(E aElement) {
+		if (aElement == null)
+			throw new NullPointerException("Null elements are not permitted");
+		long bottom = theBottom;
+		long top = theTop.get();
+		AtomicReferenceArray<E> array = theArray;
+		if (bottom - top >= array.length())
+			array = grow(array, top, bottom);
+		array.set((int) bottom & (array.length() - 1), aElement);
+		theBottom = bottom + 1; // publishes the element to thieves
+	}
+
+	/**
+	 * Pops the element at the bottom. May only be called by the owner.
+	 * 
+	 * @return the element, or null if the deque is empty or a thief took the last
+	 *         element first
+	 */
+	public E pop() {
+		long bottom = theBottom - 1;
+		AtomicReferenceArray<E> array = theArray;
+		theBottom = bottom; // reserve the slot before looking at top
+		long top = theTop.get();
+		if (top > bottom) { // deque was empty
+			theBottom = bottom + 1;
+			return null;
+		}
+		int index = (int) bottom & (array.length() - 1);
+		E result = array.get(index);
+		if (top == bottom) { // last element: race the thieves for it
+			if (!theTop.compareAndSet(top, top + 1))
+				result = null; // a thief got it
+			theBottom = bottom + 1;
+		}
+		if (result != null)
+			array.set(index, null); // dereference to help garbage collection
+		return result;
+	}
+
+	/**
+	 * Steals the element at the top. May be called by any thread.
+	 * 
+	 * @return the stolen element, or null if the deque is empty or another thread
+	 *         took the element first
+	 */
+	public E steal() {
+		long top = theTop.get();
+		long bottom = theBottom;
+		if (top >= bottom)
+			return null;
+		AtomicReferenceArray<E> array = theArray;
+		E result = array.get((int) top & (array.length() - 1));
+		if (result == null || !theTop.compareAndSet(top, top + 1))
+			return null; // lost the race
+		return result;
+	}
+
+	/** Doubles the array, keeping every element at the same logical position. */
+	private AtomicReferenceArray<E> grow(AtomicReferenceArray<E> aArray, long aTop, long aBottom) {
+		if (aArray.length() == (1 << 30))
+			throw new IllegalStateException("Deque is full");
+		AtomicReferenceArray<E> bigger = new AtomicReferenceArray<>(2 * aArray.length());
+		for (long j = aTop; j < aBottom; j++)
+			bigger.set((int) j & (bigger.length() - 1), aArray.get((int) j & (aArray.length() - 1)));
+		theArray = bigger;
+		return bigger;
+	}
+
+	/**
+	 * Returns a string representation of the deque, top first. The result is only
+	 * meaningful while no other thread is updating the deque.
+	 */
+	public String toString() {
+		StringBuilder tmpStringBuilder = new StringBuilder("(");
+		AtomicReferenceArray<E> array = theArray;
+		long top = theTop.get();
+		for (long j = top; j < theBottom; j++) {
+			if (j > top)
+				tmpStringBuilder.append(", ");
+			tmpStringBuilder.append(array.get((int) j & (array.length() - 1)));
+		}
+		tmpStringBuilder.append(")");
+		return tmpStringBuilder.toString();
+	}
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small fork-join scheduler built on WorkStealingDequeG. Every worker thread
+ * owns a deque: tasks it forks are pushed at the bottom and it takes its own
+ * work from the bottom too, newest first, which keeps it working on data that
+ * is still in its cache. A worker that runs out of work steals from the top of
+ * the deque of a randomly chosen victim, where the oldest and therefore
+ * largest pieces of a divide-and-conquer computation sit. Tasks submitted from
+ * outside the pool go through a shared submission queue. A worker that finds
+ * no work at all parks until new work is pushed.
+ *
+ * @see StealingTaskG
+ * @see WorkStealingDequeG
+ */
+public class WorkStealingPoolG {
+
+	/** A pool thread together with its deque. */
+	static final class Worker extends Thread {
+
+		private final WorkStealingPoolG thePool;
+
+		private final WorkStealingDequeG<StealingTaskG<?>> theDeque = new WorkStealingDequeG<>();
+
+		private final AtomicBoolean theParked = new AtomicBoolean();
+
+		Worker(WorkStealingPoolG aPool, int aIndex) {
+			super("WorkStealingPoolG-worker-" + aIndex);
+			thePool = aPool;
+			setDaemon(true);
+		}
+
+		void push(StealingTaskG<?> aTask) {
+			theDeque.push(aTask);
+			thePool.signalWork();
+		}
+
+		@Override
+		public void run() {
+			while (!thePool.theShutdown) {
+				StealingTaskG<?> task = thePool.findTask(this);
+				if (task != null)
+					task.exec();
+				else
+					thePool.idle(this);
+			}
+		}
+
+		/**
+		 * Runs other tasks until aTask is done. While there is nothing to help with,
+		 * aTask is being run by another worker; this one spins briefly, then yields,
+		 * then parks for growing intervals, so that it does not keep the other
+		 * worker from a processor.
+		 */
+		void helpUntilDone(StealingTaskG<?> aTask) {
+			int idle = 0;
+			while (!aTask.isDone()) {
+				StealingTaskG<?> task = thePool.findTask(this);
+				if (task != null) {
+					task.exec();
+					idle = 0;
+				} else if (idle < SPINS) {
+					Thread.onSpinWait();
+					idle++;
+				} else if (idle < SPINS + YIELDS) {
+					Thread.yield();
+					idle++;
+				} else {
+					int parks = Math.min(20, idle++ - SPINS - YIELDS);
+					LockSupport.parkNanos(this, Math.min(MAX_PARK_NANOS, 1_000L << parks)); // 1 us doubling
+				}
+			}
+		}
+	}
+
+	private static final int SPINS = 64; // idle rounds spent spinning while joining
+
+	private static final int YIELDS = 64; // then yielding, before parking
+
+	private static final long MAX_PARK_NANOS = 1_000_000;
+
+	private final Worker[] theWorkers;
+
+	private final LinkedBlockingQueueG<StealingTaskG<?>> theSubmissions = new LinkedBlockingQueueG<>();
+
+	private final AtomicInteger theIdleCount = new AtomicInteger();
+
+	private volatile boolean theShutdown = false;
+
+	/** Creates a pool with one worker per available processor. */
+	public WorkStealingPoolG() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	public WorkStealingPoolG(int aParallelism) {
+		if (aParallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be positive: " + aParallelism);
+		theWorkers = new Worker[aParallelism];
+		for (int j = 0; j < aParallelism; j++)
+			theWorkers[j] = new Worker(this, j);
+		for (Worker worker : theWorkers)
+			worker.start();
+	}
+
+	public int parallelism() {
+		return theWorkers.length;
+	}
+
+	/**
+	 * Runs a task in the pool and waits for its result. Called from a worker of
+	 * the pool, the task is simply run in place.
+	 */
+	public <V> V invoke(StealingTaskG<V> aTask) {
+		if (theShutdown)
+			throw new IllegalStateException("Pool is shut down");
+		Thread current = Thread.currentThread();
+		if (current instanceof Worker && ((Worker) current).thePool == this)
+			return aTask.invoke();
+		theSubmissions.enqueue(aTask);
+		signalWork();
+		return aTask.join();
+	}
+
+	/** Stops the workers once they finish their current task. */
+	public void shutdown() {
+		theShutdown = true;
+		for (Worker worker : theWorkers)
+			LockSupport.unpark(worker);
+	}
+
+	static Worker currentWorker() throws IllegalStateException {
+		Thread current = Thread.currentThread();
+		if (!(current instanceof Worker))
+			throw new IllegalStateException("Not called from a pool worker");
+		return (Worker) current;
+	}
+
+	/** Looks for work: own deque first, then submissions, then other deques. */
+	private StealingTaskG<?> findTask(Worker aWorker) {
+		StealingTaskG<?> task = aWorker.theDeque.pop();
+		if (task == null)
+			task = theSubmissions.dequeue();
+		if (task == null && theWorkers.length > 1) {
+			int start = ThreadLocalRandom.current().nextInt(theWorkers.length); // random first victim
+			for (int j = 0; j < theWorkers.length && task == null; j++) {
+				Worker victim = theWorkers[(start + j) % theWorkers.length];
+				if (victim != aWorker)
+					task = victim.theDeque.steal();
+			}
+		}
+		return task;
+	}
+
+	/**
+	 * Parks an idle worker. The worker announces itself as parked and looks for
+	 * work once more before it parks, and signalWork publishes work before it
+	 * looks for parked workers, so a wake-up cannot be missed.
+	 */
+	private void idle(Worker aWorker) {
+		theIdleCount.incrementAndGet();
+		aWorker.theParked.set(true);
+		StealingTaskG<?> task = findTask(aWorker);
+		if (task == null && !theShutdown)
+			LockSupport.park(this);
+		aWorker.theParked.set(false);
+		theIdleCount.decrementAndGet();
+		if (task != null)
+			task.exec();
+	}
+
+	/** Wakes one parked worker, if there is any. */
+	private void signalWork() {
+		if (theIdleCount.get() == 0)
+			return;
+		for (Worker worker : theWorkers) {
+			if (worker.theParked.compareAndSet(true, false)) {
+				LockSupport.unpark(worker);
+				return;
+			}
+		}
+	}
+
+	/** Demonstrates a divide-and-conquer maximum, as in ch04.ArrayMax, on the pool. */
+	public static void main(String[] args) {
+		double[] data = new double[10_000_000];
+		for (int j = 0; j < data.length; j++)
+			data[j] = ThreadLocalRandom.current().nextDouble();
+		data[4_321_987] = 2.0;
+
+		class MaxTask extends StealingTaskG<Double> {
+			final int theLow, theHigh;
+
+			MaxTask(int aLow, int aHigh) {
+				theLow = aLow;
+				theHigh = aHigh;
+			}
+
+			protected Double compute() {
+				if (theHigh - theLow <= 10_000) { // small enough: plain loop
+					double currentMax = data[theLow];
+					for (int j = theLow + 1; j < theHigh; j++)
+						if (data[j] > currentMax)
+							currentMax = data[j];
+					return currentMax;
+				}
+				int middle = (theLow + theHigh) >>> 1;
+				MaxTask left = new MaxTask(theLow, middle);
+				left.fork(); // may be stolen
+				double right = new MaxTask(middle, theHigh).invoke();
+				return Math.max(left.join(), right);
+			}
+		}
+
+		WorkStealingPoolG pool = new WorkStealingPoolG();
+		System.out.println(pool.invoke(new MaxTask(0, data.length))); // outputs 2.0
+		pool.shutdown();
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014, Michael T. Goodrich, Roberto Tamassia, Michael H. Goldwasser
+ *
+ * Developed for use with the book:
+ *
+ *    Data Structures and Algorithms in Java, Sixth Edition
+ *    Michael T. Goodrich, Roberto Tamassia, and Michael H. Goldwasser
+ *    John Wiley & Sons, 2014
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch06.mine.gen;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Generates the primitive specializations of the array-backed stack, queue and
+ * deque (IntArrayStack, LongArrayQueue, CharArrayDeque, ...) from the templates
+ * in this directory, so that all of them stay in sync. In a template, $type$
+ * stands for the primitive type and $Type$ for its capitalized name.
+ * <p>
+ * Run from the source root: java ch06.mine.gen.PrimitiveGenerator [srcRoot]
+ */
+public class PrimitiveGenerator {
+
+	private static final String[] TYPES = { "int", "long", "char", "double" };
+
+	private static final String[] TEMPLATES = { "ArrayStack", "ArrayQueue", "ArrayDeque" };
+
+	public static void main(String[] args) throws IOException {
+		Path srcRoot = Paths.get(args.length > 0 ? args[0] : ".");
+		Path templateDir = srcRoot.resolve("ch06/mine/gen");
+		Path targetDir = srcRoot.resolve("ch06/mine");
+		for (String template : TEMPLATES) {
+			String text = new String(Files.readAllBytes(templateDir.resolve(template + ".template")),
+					StandardCharsets.UTF_8);
+			for (String type : TYPES) {
+				String capitalized = Character.toUpperCase(type.charAt(0)) + type.substring(1);
+				String generated = text.replace("$type$", type).replace("$Type$", capitalized);
+				Path target = targetDir.resolve(capitalized + template + ".java");
+				Files.write(target, generated.getBytes(StandardCharsets.UTF_8));
+				System.out.println("Generated " + target);
+			}
+		}
+	}
+}